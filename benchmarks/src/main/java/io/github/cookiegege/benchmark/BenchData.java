@@ -0,0 +1,146 @@
+package io.github.cookiegege.benchmark;
+
+import com.alibaba.excel.enums.CellExtraTypeEnum;
+import com.alibaba.excel.metadata.CellExtra;
+import io.github.cookiegege.EasyExcelUtil;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 基准数据构造
+ *
+ * @author JoSuper
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BenchData {
+
+    /**
+     * 超过15位的编号会被导出为字符串
+     */
+    private static final long BIG_SERIAL_NO = 1_000_000_000_000_000L;
+
+    /**
+     * 生成行数据
+     *
+     * @param rows     行数
+     * @param mergeRun 每个分组连续的行数，1 表示没有可合并的行
+     * @return 行数据
+     */
+    public static List<BenchRow> rows(int rows, int mergeRun) {
+        List<BenchRow> list = new ArrayList<>(rows);
+        Date now = new Date();
+        BenchStatus[] statuses = BenchStatus.values();
+        for (int i = 0; i < rows; i++) {
+            BenchRow row = new BenchRow();
+            row.setGroup("分组" + (i / mergeRun));
+            row.setName("名称" + i);
+            row.setSerialNo(i % 2 == 0 ? i : BIG_SERIAL_NO + i);
+            row.setAmount(BigDecimal.valueOf(i, 2));
+            row.setStatus(statuses[i % statuses.length].getCode());
+            row.setCreateTime(now);
+            list.add(row);
+        }
+        return list;
+    }
+
+    /**
+     * 生成自定义表头的字符串数据
+     *
+     * @param rows    行数
+     * @param columns 列数
+     * @return 行数据
+     */
+    public static List<List<String>> stringRows(int rows, int columns) {
+        List<List<String>> list = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            List<String> row = new ArrayList<>(columns);
+            for (int j = 0; j < columns; j++) {
+                row.add("值" + i + "-" + j);
+            }
+            list.add(row);
+        }
+        return list;
+    }
+
+    /**
+     * 生成自定义表头
+     *
+     * @param columns 列数
+     * @return 表头
+     */
+    public static List<List<String>> head(int columns) {
+        List<List<String>> head = new ArrayList<>(columns);
+        for (int j = 0; j < columns; j++) {
+            List<String> item = new ArrayList<>(1);
+            item.add("列" + j);
+            head.add(item);
+        }
+        return head;
+    }
+
+    /**
+     * 生成合并区域，与 {@link #rows(int, int)} 的分组一致，每个区域覆盖前 columns 列
+     *
+     * @param rows          行数
+     * @param mergeRun      每个区域的行数
+     * @param columns       每个区域的列数
+     * @param headRowNumber 表头行数
+     * @return 合并区域
+     */
+    public static List<CellExtra> mergeRegions(int rows, int mergeRun, int columns, int headRowNumber) {
+        List<CellExtra> extras = new ArrayList<>();
+        if (mergeRun <= 1 && columns <= 1) {
+            return extras;
+        }
+        for (int firstRow = 0; firstRow < rows; firstRow += mergeRun) {
+            int lastRow = Math.min(firstRow + mergeRun, rows) - 1;
+            extras.add(new CellExtra(CellExtraTypeEnum.MERGE, null,
+                    firstRow + headRowNumber, lastRow + headRowNumber, 0, columns - 1));
+        }
+        return extras;
+    }
+
+    /**
+     * 导出为 xlsx 字节，供导入基准使用
+     */
+    public static byte[] toXlsx(List<BenchRow> list) {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        EasyExcelUtil.exportExcel(list, "基准", BenchRow.class, os);
+        return os.toByteArray();
+    }
+
+    /**
+     * 生成一张纯色 png 图片
+     *
+     * @param size 边长(像素)
+     * @return 图片字节
+     */
+    public static byte[] png(int size) {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(Color.ORANGE);
+            graphics.fillRect(0, 0, size, size);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", os);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return os.toByteArray();
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.cookiegege.benchmark;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import io.github.cookiegege.annotation.CellMerge;
+import io.github.cookiegege.annotation.ExcelEnumFormat;
+import io.github.cookiegege.convert.ExcelEnumConvert;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * 基准用的行数据，覆盖合并、大数值、枚举和校验
+ *
+ * @author JoSuper
+ */
+@Data
+public class BenchRow {
+
+    @CellMerge(index = 0)
+    @NotBlank
+    @ExcelProperty(value = "分组", index = 0)
+    private String group;
+
+    @NotBlank
+    @Size(max = 64)
+    @ExcelProperty(value = "名称", index = 1)
+    private String name;
+
+    @ExcelProperty(value = "编号", index = 2)
+    private Long serialNo;
+
+    @NotNull
+    @DecimalMin("0")
+    @ExcelProperty(value = "金额", index = 3)
+    private BigDecimal amount;
+
+    @ExcelEnumFormat(enumClass = BenchStatus.class)
+    @ExcelProperty(value = "状态", index = 4, converter = ExcelEnumConvert.class)
+    private Integer status;
+
+    @ExcelProperty(value = "创建时间", index = 5)
+    private Date createTime;
+
+}
@@ -0,0 +1,24 @@
+package io.github.cookiegege.benchmark;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 基准用的状态枚举
+ *
+ * @author JoSuper
+ */
+@Getter
+@AllArgsConstructor
+public enum BenchStatus {
+
+    DISABLED(0, "停用"),
+    ENABLED(1, "启用"),
+    LOCKED(2, "锁定"),
+    DELETED(3, "删除");
+
+    private final Integer code;
+
+    private final String text;
+
+}
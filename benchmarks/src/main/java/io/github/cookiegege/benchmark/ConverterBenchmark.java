@@ -0,0 +1,103 @@
+package io.github.cookiegege.benchmark;
+
+import com.alibaba.excel.metadata.GlobalConfiguration;
+import com.alibaba.excel.metadata.data.ReadCellData;
+import com.alibaba.excel.metadata.property.ExcelContentProperty;
+import io.github.cookiegege.convert.ExcelBigNumberConvert;
+import io.github.cookiegege.convert.ExcelEnumConvert;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单元格转换器，每次调用转换 {@value #BATCH} 个值
+ *
+ * @author JoSuper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterBenchmark {
+
+    private static final int BATCH = 1024;
+
+    private final ExcelBigNumberConvert bigNumberConvert = new ExcelBigNumberConvert();
+
+    private final ExcelEnumConvert enumConvert = new ExcelEnumConvert();
+
+    private final GlobalConfiguration configuration = new GlobalConfiguration();
+
+    private Long[] numbers;
+
+    private ReadCellData<?>[] numberCells;
+
+    private Integer[] codes;
+
+    private ReadCellData<?>[] textCells;
+
+    private ExcelContentProperty statusProperty;
+
+    @Setup
+    public void setup() throws NoSuchFieldException {
+        numbers = new Long[BATCH];
+        numberCells = new ReadCellData<?>[BATCH];
+        codes = new Integer[BATCH];
+        textCells = new ReadCellData<?>[BATCH];
+        BenchStatus[] statuses = BenchStatus.values();
+        for (int i = 0; i < BATCH; i++) {
+            // 一半超过15位
+            numbers[i] = i % 2 == 0 ? (long) i * 7919 : 1_000_000_000_000_000L + i;
+            numberCells[i] = stringCell(String.valueOf(numbers[i]));
+            BenchStatus status = statuses[i % statuses.length];
+            codes[i] = status.getCode();
+            textCells[i] = stringCell(status.getText());
+        }
+        statusProperty = new ExcelContentProperty();
+        statusProperty.setField(BenchRow.class.getDeclaredField("status"));
+    }
+
+    /**
+     * 与读取时一致，字符串单元格的 data 和 stringValue 都是文本
+     */
+    private static ReadCellData<String> stringCell(String value) {
+        ReadCellData<String> cellData = new ReadCellData<>(value);
+        cellData.setData(value);
+        return cellData;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void bigNumberToExcel(Blackhole blackhole) {
+        for (Long number : numbers) {
+            blackhole.consume(bigNumberConvert.convertToExcelData(number, null, configuration));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void bigNumberToJava(Blackhole blackhole) {
+        for (ReadCellData<?> cellData : numberCells) {
+            blackhole.consume(bigNumberConvert.convertToJavaData(cellData, null, configuration));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void enumToExcel(Blackhole blackhole) {
+        for (Integer code : codes) {
+            blackhole.consume(enumConvert.convertToExcelData(code, statusProperty, configuration));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void enumToJava(Blackhole blackhole) {
+        for (ReadCellData<?> cellData : textCells) {
+            blackhole.consume(enumConvert.convertToJavaData(cellData, statusProperty, configuration));
+        }
+    }
+}
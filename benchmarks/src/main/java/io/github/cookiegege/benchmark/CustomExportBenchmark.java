@@ -0,0 +1,45 @@
+package io.github.cookiegege.benchmark;
+
+import io.github.cookiegege.EasyExcelUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自定义表头导出，列数可调
+ *
+ * @author JoSuper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomExportBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    @Param({"5", "20", "50"})
+    private int columns;
+
+    private List<List<String>> head;
+
+    private List<List<String>> data;
+
+    @Setup
+    public void setup() {
+        head = BenchData.head(columns);
+        data = BenchData.stringRows(rows, columns);
+    }
+
+    @Benchmark
+    public int exportCustomExcel() {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        EasyExcelUtil.exportCustomExcel(data, "基准", head, false, os);
+        return os.size();
+    }
+}
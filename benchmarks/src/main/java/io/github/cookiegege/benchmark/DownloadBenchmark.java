@@ -0,0 +1,105 @@
+package io.github.cookiegege.benchmark;
+
+import io.github.cookiegege.util.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 下载已生成的文件：原 1KB 循环拷贝与 FileUtils.writeBytes(transferTo / 大缓冲区)对比
+ *
+ * @author JoSuper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DownloadBenchmark {
+
+    @Param({"64"})
+    private int sizeMb;
+
+    private File source;
+
+    private File target;
+
+    @Setup
+    public void setup() throws IOException {
+        source = File.createTempFile("download-bench", ".bin");
+        target = File.createTempFile("download-bench", ".out");
+        byte[] block = new byte[1024 * 1024];
+        new Random(1).nextBytes(block);
+        try (OutputStream os = new FileOutputStream(source)) {
+            for (int i = 0; i < sizeMb; i++) {
+                os.write(block);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(source.toPath());
+        Files.deleteIfExists(target.toPath());
+    }
+
+    /**
+     * 原实现：1KB 数组循环读写
+     */
+    @Benchmark
+    public long legacyLoopToStream() throws IOException {
+        CountingStream os = new CountingStream();
+        try (FileInputStream fis = new FileInputStream(source)) {
+            byte[] b = new byte[1024];
+            int length;
+            while ((length = fis.read(b)) > 0) {
+                os.write(b, 0, length);
+            }
+        }
+        return os.count;
+    }
+
+    /**
+     * 非文件输出流(如 ServletOutputStream)：大缓冲区
+     */
+    @Benchmark
+    public long writeBytesToStream() throws IOException {
+        CountingStream os = new CountingStream();
+        FileUtils.writeBytes(source, 0, source.length(), os);
+        return os.count;
+    }
+
+    /**
+     * 文件输出流：transferTo
+     */
+    @Benchmark
+    public long writeBytesToFile() throws IOException {
+        try (FileOutputStream os = new FileOutputStream(target)) {
+            FileUtils.writeBytes(source, 0, source.length(), os);
+        }
+        return target.length();
+    }
+
+    private static class CountingStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
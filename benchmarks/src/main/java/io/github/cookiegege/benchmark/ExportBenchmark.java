@@ -0,0 +1,52 @@
+package io.github.cookiegege.benchmark;
+
+import io.github.cookiegege.EasyExcelUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体类导出：不合并 / 按 {@link io.github.cookiegege.annotation.CellMerge} 合并
+ *
+ * @author JoSuper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExportBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    /**
+     * 每个分组连续的行数，越大合并区域越少、越高
+     */
+    @Param({"1", "8", "64"})
+    private int mergeRun;
+
+    private List<BenchRow> data;
+
+    @Setup
+    public void setup() {
+        data = BenchData.rows(rows, mergeRun);
+    }
+
+    @Benchmark
+    public int exportExcel() {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        EasyExcelUtil.exportExcel(data, "基准", BenchRow.class, false, os);
+        return os.size();
+    }
+
+    @Benchmark
+    public int exportExcelMerge() {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        EasyExcelUtil.exportExcel(data, "基准", BenchRow.class, true, os);
+        return os.size();
+    }
+}
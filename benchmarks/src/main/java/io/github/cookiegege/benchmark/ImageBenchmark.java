@@ -0,0 +1,87 @@
+package io.github.cookiegege.benchmark;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import com.alibaba.excel.metadata.data.ImageData;
+import com.alibaba.excel.metadata.data.WriteCellData;
+import io.github.cookiegege.EasyExcelUtil;
+import io.github.cookiegege.excel.CustomImageModifyHandler;
+import lombok.Data;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 图片导出，覆盖 {@link CustomImageModifyHandler} 的图片插入和形状清理
+ *
+ * @author JoSuper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageBenchmark {
+
+    @Param({"100", "1000"})
+    private int rows;
+
+    @Param({"1", "4"})
+    private int imagesPerCell;
+
+    @Param({"60", "600"})
+    private int imageSize;
+
+    private byte[] image;
+
+    private List<ImageRow> data;
+
+    @Setup(Level.Trial)
+    public void setupImage() {
+        image = BenchData.png(imageSize);
+    }
+
+    /**
+     * 导出过程中会修改单元格数据，每次调用重新构造
+     */
+    @Setup(Level.Invocation)
+    public void setupRows() {
+        data = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            List<ImageData> images = new ArrayList<>(imagesPerCell);
+            for (int j = 0; j < imagesPerCell; j++) {
+                ImageData imageData = new ImageData();
+                imageData.setImage(image);
+                imageData.setImageType(ImageData.ImageType.PICTURE_TYPE_PNG);
+                images.add(imageData);
+            }
+            WriteCellData<Void> cellData = new WriteCellData<>();
+            cellData.setImageDataList(images);
+            ImageRow row = new ImageRow();
+            row.setName("名称" + i);
+            row.setImages(cellData);
+            data.add(row);
+        }
+    }
+
+    @Benchmark
+    public int exportImages() {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        EasyExcelUtil.exportExcel(data, "基准", ImageRow.class, false, os);
+        return os.size();
+    }
+
+    @Data
+    public static class ImageRow {
+
+        @ExcelProperty("名称")
+        private String name;
+
+        @ExcelProperty("图片")
+        private WriteCellData<Void> images;
+
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.cookiegege.benchmark;
+
+import io.github.cookiegege.EasyExcelUtil;
+import io.github.cookiegege.excel.ExcelResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 导入：开启 / 关闭 Bean Validation 校验，以及线程池并行校验
+ *
+ * @author JoSuper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImportBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    @Param({"false", "true"})
+    private boolean validate;
+
+    private byte[] file;
+
+    @Setup
+    public void setup() {
+        file = BenchData.toXlsx(BenchData.rows(rows, 1));
+    }
+
+    @Benchmark
+    public int importExcel() {
+        ExcelResult<BenchRow> result = EasyExcelUtil.importExcel(new ByteArrayInputStream(file), BenchRow.class, validate);
+        return result.getList().size();
+    }
+
+    @Benchmark
+    public int importExcelParallelValidate() {
+        ExcelResult<BenchRow> result = EasyExcelUtil.importExcelParallel(new ByteArrayInputStream(file), BenchRow.class);
+        return result.getList().size();
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.cookiegege.benchmark;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import com.alibaba.excel.metadata.CellExtra;
+import io.github.cookiegege.EasyExcelUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 合并单元格回填：单次扫描回填 vs 原有的逐区域反射回填
+ * 回填是幂等的，同一份数据可以重复使用
+ *
+ * @author JoSuper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MergeExpandBenchmark {
+
+    private static final int HEAD_ROW_NUMBER = 1;
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    @Param({"2", "20", "200"})
+    private int mergeRun;
+
+    /**
+     * 每个合并区域覆盖的列数，前两列都是字符串
+     */
+    @Param({"1", "2"})
+    private int columns;
+
+    private List<BenchRow> data;
+
+    private List<CellExtra> extras;
+
+    @Setup
+    public void setup() {
+        data = BenchData.rows(rows, mergeRun);
+        extras = BenchData.mergeRegions(rows, mergeRun, columns, HEAD_ROW_NUMBER);
+    }
+
+    @Benchmark
+    public List<BenchRow> explainMergeData() {
+        return EasyExcelUtil.explainMergeData(data, extras, HEAD_ROW_NUMBER);
+    }
+
+    @Benchmark
+    public List<BenchRow> legacy() throws IllegalAccessException {
+        for (CellExtra cellExtra : extras) {
+            int firstRowIndex = cellExtra.getFirstRowIndex() - HEAD_ROW_NUMBER;
+            int lastRowIndex = cellExtra.getLastRowIndex() - HEAD_ROW_NUMBER;
+            Object initValue = legacyAccess(data.get(firstRowIndex), cellExtra.getFirstColumnIndex(), null, false);
+            for (int i = firstRowIndex; i <= lastRowIndex; i++) {
+                for (int j = cellExtra.getFirstColumnIndex(); j <= cellExtra.getLastColumnIndex(); j++) {
+                    legacyAccess(data.get(i), j, initValue, true);
+                }
+            }
+        }
+        return data;
+    }
+
+    /**
+     * 原有实现：每个单元格都遍历字段并读取注解
+     */
+    private static Object legacyAccess(Object object, int columnIndex, Object value, boolean set) throws IllegalAccessException {
+        for (Field field : object.getClass().getDeclaredFields()) {
+            field.setAccessible(true);
+            ExcelProperty annotation = field.getAnnotation(ExcelProperty.class);
+            if (annotation != null && annotation.index() == columnIndex) {
+                if (set) {
+                    field.set(object, value);
+                    return null;
+                }
+                return field.get(object);
+            }
+        }
+        return null;
+    }
+}
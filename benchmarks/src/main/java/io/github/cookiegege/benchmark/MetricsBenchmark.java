@@ -0,0 +1,51 @@
+package io.github.cookiegege.benchmark;
+
+import io.github.cookiegege.EasyExcelUtil;
+import io.github.cookiegege.metrics.ExcelMetrics;
+import io.github.cookiegege.metrics.ExcelMetricsRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 指标采集本身的开销：未启用 / 启用(实现不做任何事情，只计算计时和计数的开销)
+ *
+ * @author JoSuper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    @Param({"false", "true"})
+    private boolean enabled;
+
+    private List<BenchRow> data;
+
+    @Setup
+    public void setup() {
+        data = BenchData.rows(rows, 8);
+        ExcelMetricsRegistry.setMetrics(enabled ? new ExcelMetrics() {
+        } : ExcelMetrics.NOOP);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ExcelMetricsRegistry.setMetrics(null);
+    }
+
+    @Benchmark
+    public int exportExcelMerge() {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        EasyExcelUtil.exportExcel(data, "基准", BenchRow.class, true, os);
+        return os.size();
+    }
+}
@@ -1,11 +1,10 @@
 package io.github.cookiegege;
 
 import cn.hutool.core.collection.CollUtil;
-import cn.hutool.core.io.resource.ClassPathResource;
 import cn.hutool.core.util.IdUtil;
-import cn.hutool.core.util.StrUtil;
 import com.alibaba.excel.EasyExcel;
 import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.annotation.ExcelIgnore;
 import com.alibaba.excel.annotation.ExcelProperty;
 import com.alibaba.excel.enums.CellExtraTypeEnum;
 import com.alibaba.excel.metadata.CellExtra;
@@ -17,17 +16,21 @@ import com.alibaba.excel.write.metadata.WriteSheet;
 import com.alibaba.excel.write.metadata.fill.FillConfig;
 import com.alibaba.excel.write.metadata.fill.FillWrapper;
 import io.github.cookiegege.convert.ExcelBigNumberConvert;
-import io.github.cookiegege.excel.*;
+import io.github.cookiegege.convert.ExpDictionary;
 import io.github.cookiegege.excel.*;
 import io.github.cookiegege.exception.ExcelException;
+import io.github.cookiegege.metrics.ExcelMetrics;
+import io.github.cookiegege.metrics.ExcelOperation;
 import io.github.cookiegege.strategy.CellMergeStrategy;
+import io.github.cookiegege.strategy.StreamCellMergeStrategy;
+import io.github.cookiegege.util.ExcelExecutors;
 import io.github.cookiegege.util.FileUtils;
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.ss.SpreadsheetVersion;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -35,7 +38,10 @@ import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Field;
 import java.util.*;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Excel相关处理
@@ -46,8 +52,6 @@ import java.util.concurrent.CountDownLatch;
 @Slf4j
 public class EasyExcelUtil {
 
-    private static final String COMMA_SEPARATOR = ",";
-
     /**
      * 同步导入(适用于小数据量)
      *
@@ -55,7 +59,14 @@ public class EasyExcelUtil {
      * @return 转换后集合
      */
     public static <T> List<T> importExcel(InputStream is, Class<T> clazz) {
-        return EasyExcel.read(is).head(clazz).autoCloseStream(false).sheet().doReadSync();
+        try (ExcelOperation operation = ExcelOperation.start(ExcelMetrics.IMPORT)) {
+            long start = operation.startStage();
+            List<T> list = operation.instrument(EasyExcel.read(is).head(clazz)).autoCloseStream(false).sheet().doReadSync();
+            operation.endStage(ExcelMetrics.STAGE_READ, start);
+            operation.bufferedRows(list.size());
+            operation.complete();
+            return list;
+        }
     }
 
 
@@ -69,8 +80,149 @@ public class EasyExcelUtil {
      */
     public static <T> ExcelResult<T> importExcel(InputStream is, Class<T> clazz, boolean isValidate) {
         DefaultExcelListener<T> listener = new DefaultExcelListener<>(isValidate);
-        EasyExcel.read(is, clazz, listener).sheet().doRead();
-        return listener.getExcelResult();
+        return read(is, clazz, listener);
+    }
+
+    /**
+     * 使用校验监听器 按错误处理策略导入
+     *
+     * @param is          输入流
+     * @param clazz       对象类型
+     * @param isValidate  是否 Validator 检验
+     * @param errorPolicy 错误处理策略 如遇错即停、记录前N条、抽样N条
+     * @return 导入回执
+     */
+    public static <T> ExcelResult<T> importExcel(InputStream is, Class<T> clazz, boolean isValidate, ImportErrorPolicy errorPolicy) {
+        DefaultExcelListener<T> listener = new DefaultExcelListener<>(isValidate, errorPolicy);
+        return read(is, clazz, listener);
+    }
+
+    /**
+     * 使用共享线程池并行校验导入 数据按批次校验 所有转换异常和校验异常都记录到错误列表 不会中断解析
+     *
+     * @param is    输入流
+     * @param clazz 对象类型
+     * @return 导入回执 数据按行号顺序排列
+     */
+    public static <T> ExcelResult<T> importExcelParallel(InputStream is, Class<T> clazz) {
+        return importExcel(is, clazz, ExcelExecutors.defaultExecutor(), ImportErrorPolicy.collectAll());
+    }
+
+    /**
+     * 使用共享线程池并行校验导入 错误按策略处理
+     *
+     * @param is          输入流
+     * @param clazz       对象类型
+     * @param errorPolicy 错误处理策略
+     * @return 导入回执 数据按行号顺序排列
+     */
+    public static <T> ExcelResult<T> importExcelParallel(InputStream is, Class<T> clazz, ImportErrorPolicy errorPolicy) {
+        return importExcel(is, clazz, ExcelExecutors.defaultExecutor(), errorPolicy);
+    }
+
+    /**
+     * 并行校验导入 数据按批次在线程池中校验 所有转换异常和校验异常都记录到错误列表 不会中断解析
+     *
+     * @param is               输入流
+     * @param clazz            对象类型
+     * @param validateExecutor 校验线程池 不能为空 使用共享线程池时调用 {@link #importExcelParallel(InputStream, Class)}
+     * @return 导入回执 数据按行号顺序排列
+     */
+    public static <T> ExcelResult<T> importExcel(InputStream is, Class<T> clazz, Executor validateExecutor) {
+        return importExcel(is, clazz, validateExecutor, ImportErrorPolicy.collectAll());
+    }
+
+    /**
+     * 并行校验导入 数据按批次在线程池中校验 错误按策略处理
+     *
+     * @param is               输入流
+     * @param clazz            对象类型
+     * @param validateExecutor 校验线程池 不能为空
+     * @param errorPolicy      错误处理策略
+     * @return 导入回执 数据按行号顺序排列
+     */
+    public static <T> ExcelResult<T> importExcel(InputStream is, Class<T> clazz, Executor validateExecutor, ImportErrorPolicy errorPolicy) {
+        DefaultExcelListener<T> listener = new DefaultExcelListener<>(validateExecutor, DefaultExcelListener.DEFAULT_VALIDATE_BATCH_SIZE, errorPolicy);
+        return read(is, clazz, listener);
+    }
+
+    /**
+     * 使用校验监听器 按错误处理策略导入 并按间隔回调导入进度
+     *
+     * @param is               输入流
+     * @param clazz            对象类型
+     * @param isValidate       是否 Validator 检验
+     * @param errorPolicy      错误处理策略
+     * @param progressListener 进度回调 每秒最多一次 结束时再回调一次
+     * @return 导入回执
+     */
+    public static <T> ExcelResult<T> importExcel(InputStream is, Class<T> clazz, boolean isValidate, ImportErrorPolicy errorPolicy,
+                                                 ImportProgressListener progressListener) {
+        return importExcel(is, clazz, new DefaultExcelListener<>(isValidate, errorPolicy), progressListener);
+    }
+
+    /**
+     * 并行校验导入 错误按策略处理 并按间隔回调导入进度
+     *
+     * @param is               输入流
+     * @param clazz            对象类型
+     * @param validateExecutor 校验线程池 不能为空
+     * @param errorPolicy      错误处理策略
+     * @param progressListener 进度回调 每秒最多一次 结束时再回调一次
+     * @return 导入回执 数据按行号顺序排列
+     */
+    public static <T> ExcelResult<T> importExcel(InputStream is, Class<T> clazz, Executor validateExecutor, ImportErrorPolicy errorPolicy,
+                                                 ImportProgressListener progressListener) {
+        return importExcel(is, clazz, new DefaultExcelListener<>(validateExecutor, DefaultExcelListener.DEFAULT_VALIDATE_BATCH_SIZE, errorPolicy),
+                progressListener);
+    }
+
+    /**
+     * 使用校验监听器导入 并按间隔回调导入进度
+     *
+     * @param is               输入流
+     * @param clazz            对象类型
+     * @param listener         校验监听器
+     * @param progressListener 进度回调 每秒最多一次 结束时再回调一次
+     * @return 导入回执
+     */
+    public static <T> ExcelResult<T> importExcel(InputStream is, Class<T> clazz, DefaultExcelListener<T> listener,
+                                                 ImportProgressListener progressListener) {
+        ImportProgressTracker tracker = new ImportProgressTracker(progressListener);
+        listener.setProgressTracker(tracker);
+        try {
+            return read(tracker.track(is), clazz, listener);
+        } finally {
+            tracker.finish();
+        }
+    }
+
+    /**
+     * 分批导入(适用于大数据量) 数据按批次交给消费者 不在内存中保留全部数据
+     *
+     * @param is        输入流
+     * @param clazz     对象类型
+     * @param batchSize 每批条数
+     * @param consumer  批次消费者
+     * @return 导入回执 只包含计数和错误信息
+     */
+    public static <T> ExcelResult<T> importExcel(InputStream is, Class<T> clazz, int batchSize, Consumer<List<T>> consumer) {
+        return importExcel(is, clazz, true, batchSize, consumer);
+    }
+
+    /**
+     * 分批导入(适用于大数据量) 数据按批次交给消费者 不在内存中保留全部数据
+     *
+     * @param is         输入流
+     * @param clazz      对象类型
+     * @param isValidate 是否 Validator 检验
+     * @param batchSize  每批条数
+     * @param consumer   批次消费者
+     * @return 导入回执 只包含计数和错误信息
+     */
+    public static <T> ExcelResult<T> importExcel(InputStream is, Class<T> clazz, boolean isValidate, int batchSize, Consumer<List<T>> consumer) {
+        BatchExcelListener<T> listener = new BatchExcelListener<>(isValidate, batchSize, consumer);
+        return read(is, clazz, listener);
     }
 
     /**
@@ -82,8 +234,22 @@ public class EasyExcelUtil {
      * @return 转换后集合
      */
     public static <T> ExcelResult<T> importExcel(InputStream is, Class<T> clazz, ExcelListener<T> listener) {
-        EasyExcel.read(is, clazz, listener).sheet().doRead();
-        return listener.getExcelResult();
+        return read(is, clazz, listener);
+    }
+
+    /**
+     * 使用监听器读取第一个sheet 并记录导入指标
+     */
+    private static <T> ExcelResult<T> read(InputStream is, Class<T> clazz, ExcelListener<T> listener) {
+        try (ExcelOperation operation = ExcelOperation.start(ExcelMetrics.IMPORT)) {
+            long start = operation.startStage();
+            operation.instrument(EasyExcel.read(is, clazz, listener)).sheet().doRead();
+            operation.endStage(ExcelMetrics.STAGE_READ, start);
+            ExcelResult<T> result = listener.getExcelResult();
+            operation.bufferedRows(result.getList().size());
+            operation.complete();
+            return result;
+        }
     }
 
     /**
@@ -120,44 +286,118 @@ public class EasyExcelUtil {
      * @return 转换后集合
      */
     public static <T> List<T> importExcel(InputStream is, Class<T> clazz, MergeExcelReadListener<T> listener, Boolean readAll) {
-        ExcelReaderBuilder excelReaderBuilder;
-        if (clazz == null) {
-            excelReaderBuilder = EasyExcel.read(is, listener);
-        } else {
-            excelReaderBuilder = EasyExcel.read(is, clazz, listener);
-        }
-        if (listener.getHeadRowNumber() != 1) {
-            excelReaderBuilder.headRowNumber(listener.getHeadRowNumber());
-        }
-        excelReaderBuilder = excelReaderBuilder.extraRead(CellExtraTypeEnum.MERGE);
-        if (readAll) {
-            excelReaderBuilder.doReadAll();
-        } else {
-            excelReaderBuilder.sheet().doRead();
-        }
-        HashMap<String, List<CellExtra>> extraMergeInfoMap = listener.getMergeDataMap();
+        return importExcel(is, clazz, listener, readAll, MergeResolveOptions.DEFAULT);
+    }
 
-        List<CellExtra> mergeDataList = listener.getMergeDataList();
+    /**
+     * 使用自定义监听器 异步导入 自定义返回
+     * 合并单元格按sheet在线程池中回填，结果按sheet顺序、行顺序返回
+     *
+     * @param is       输入流
+     * @param clazz    对象类型
+     * @param listener 自定义监听器
+     * @param readAll  是否读取所有sheet
+     * @param options  合并单元格回填的执行配置
+     * @return 转换后集合
+     */
+    public static <T> List<T> importExcel(InputStream is, Class<T> clazz, MergeExcelReadListener<T> listener, Boolean readAll, MergeResolveOptions options) {
+        try (ExcelOperation operation = ExcelOperation.start(ExcelMetrics.IMPORT)) {
+            ExcelReaderBuilder excelReaderBuilder;
+            if (clazz == null) {
+                excelReaderBuilder = operation.instrument(EasyExcel.read(is, listener));
+            } else {
+                excelReaderBuilder = operation.instrument(EasyExcel.read(is, clazz, listener));
+            }
+            if (listener.getHeadRowNumber() != 1) {
+                excelReaderBuilder.headRowNumber(listener.getHeadRowNumber());
+            }
+            excelReaderBuilder = excelReaderBuilder.extraRead(CellExtraTypeEnum.MERGE);
+            long start = operation.startStage();
+            if (readAll) {
+                excelReaderBuilder.doReadAll();
+            } else {
+                excelReaderBuilder.sheet().doRead();
+            }
+
+            operation.endStage(ExcelMetrics.STAGE_READ, start);
+            List<CellExtra> mergeDataList = listener.getMergeDataList();
 
 
-        //没有合并单元格情况，直接返回即可
-        if (isEmpty(mergeDataList)) {
-            return listener.getDataList();
+            //没有合并单元格情况，直接返回即可
+            List<T> result = isEmpty(mergeDataList)
+                    ? listener.getDataList()
+                    : resolveMergeData(listener, options == null ? MergeResolveOptions.DEFAULT : options);
+            operation.bufferedRows(result.size());
+            operation.complete();
+            return result;
         }
-        CountDownLatch computerLatch = new CountDownLatch(extraMergeInfoMap.keySet().size());
-        List<T> list = Collections.synchronizedList(new ArrayList<>());
-        extraMergeInfoMap.forEach((key, value) -> {
-            new Thread(() -> {
-                //存在有合并单元格时，自动获取值，并校对
-                List<T> explainMergeData = explainMergeData(listener.getDataBySheet(key), value, listener.getHeadRowNumber());
-                list.addAll(explainMergeData);
-                computerLatch.countDown();
-            }).start();
-        });
+    }
 
+    /**
+     * 按sheet并行回填合并单元格，任意sheet失败、超时或被中断时取消其余任务并抛出异常
+     *
+     * @param listener 已完成读取的监听器
+     * @param options  执行配置
+     * @return 按sheet顺序、行顺序排列的数据
+     */
+    private static <T> List<T> resolveMergeData(MergeExcelReadListener<T> listener, MergeResolveOptions options) {
+        ExecutorService ownedExecutor = null;
+        Executor executor = options.getExecutor();
+        if (executor == null) {
+            if (options.isVirtualThreads()) {
+                ownedExecutor = ExcelExecutors.newVirtualThreadExecutor("excel-merge-");
+                executor = ownedExecutor;
+            } else {
+                executor = ExcelExecutors.defaultExecutor();
+            }
+        }
+        Integer headRowNumber = listener.getHeadRowNumber();
+        List<String> sheetNames = new ArrayList<>(listener.getDataMap().keySet());
+        List<List<T>> sheetResults = new ArrayList<>(Collections.nCopies(sheetNames.size(), null));
+        ExecutorCompletionService<List<T>> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<List<T>>, Integer> futures = new HashMap<>();
         try {
-            computerLatch.await();
+            for (int i = 0; i < sheetNames.size(); i++) {
+                List<T> sheetData = listener.getDataBySheet(sheetNames.get(i));
+                List<CellExtra> sheetMergeData = listener.getMergeDataBySheet(sheetNames.get(i));
+                if (isEmpty(sheetData) || isEmpty(sheetMergeData)) {
+                    sheetResults.set(i, sheetData);
+                    continue;
+                }
+                //存在有合并单元格时，自动获取值，并校对
+                futures.put(completionService.submit(() -> explainMergeData(sheetData, sheetMergeData, headRowNumber)), i);
+            }
+            long deadline = options.getTimeout() == null ? 0 : System.nanoTime() + options.getTimeout().toNanos();
+            for (int done = 0; done < futures.size(); done++) {
+                Future<List<T>> future;
+                if (deadline == 0) {
+                    future = completionService.take();
+                } else {
+                    future = completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (future == null) {
+                        throw new ExcelException("合并单元格处理超时，超过{}毫秒", options.getTimeout().toMillis());
+                    }
+                }
+                sheetResults.set(futures.get(future), future.get());
+            }
         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExcelException("合并单元格处理被中断");
+        } catch (ExecutionException e) {
+            ExcelException exception = new ExcelException("合并单元格处理异常：{}", e.getCause().getMessage());
+            exception.initCause(e.getCause());
+            throw exception;
+        } finally {
+            futures.keySet().forEach(future -> future.cancel(true));
+            if (ownedExecutor != null) {
+                ownedExecutor.shutdownNow();
+            }
+        }
+        List<T> list = new ArrayList<>();
+        for (List<T> sheetResult : sheetResults) {
+            if (sheetResult != null) {
+                list.addAll(sheetResult);
+            }
         }
         return list;
     }
@@ -171,22 +411,7 @@ public class EasyExcelUtil {
      * @return 填充好的解析数据
      */
     public static <T> List<T> explainMergeData(List<T> data, List<CellExtra> extraMergeInfoList, Integer headRowNumber) {
-        //循环所有合并单元格信息
-        extraMergeInfoList.forEach(cellExtra -> {
-            int firstRowIndex = cellExtra.getFirstRowIndex() - headRowNumber;
-            int lastRowIndex = cellExtra.getLastRowIndex() - headRowNumber;
-            int firstColumnIndex = cellExtra.getFirstColumnIndex();
-            int lastColumnIndex = cellExtra.getLastColumnIndex();
-            //获取初始值
-            Object initValue = getInitValueFromList(firstRowIndex, firstColumnIndex, data);
-            //设置值
-            for (int i = firstRowIndex; i <= lastRowIndex; i++) {
-                for (int j = firstColumnIndex; j <= lastColumnIndex; j++) {
-                    setInitValueToList(initValue, i, j, data);
-                }
-            }
-        });
-        return data;
+        return MergeCellExpander.expand(data, extraMergeInfoList, headRowNumber);
     }
 
     /**
@@ -199,54 +424,11 @@ public class EasyExcelUtil {
      */
     public static <T> void setInitValueToList(Object filedValue, Integer rowIndex, Integer columnIndex, List<T> data) {
         T object = data.get(rowIndex);
-
-        for (Field field : object.getClass().getDeclaredFields()) {
-            //提升反射性能，关闭安全检查
-            field.setAccessible(true);
-            ExcelProperty annotation = field.getAnnotation(ExcelProperty.class);
-            if (annotation != null) {
-                if (annotation.index() == columnIndex) {
-                    try {
-                        field.set(object, filedValue);
-                        break;
-                    } catch (IllegalAccessException e) {
-                        log.error("设置合并单元格的值异常：{}", e.getMessage());
-                    }
-                }
-            }
-        }
-    }
-
-
-    /**
-     * 获取合并单元格的初始值
-     * rowIndex对应list的索引
-     * columnIndex对应实体内的字段
-     *
-     * @param firstRowIndex    起始行
-     * @param firstColumnIndex 起始列
-     * @param data             列数据
-     * @return 初始值
-     */
-    private static <T> Object getInitValueFromList(Integer firstRowIndex, Integer firstColumnIndex, List<T> data) {
-        Object filedValue = null;
-        T object = data.get(firstRowIndex);
-        for (Field field : object.getClass().getDeclaredFields()) {
-            //提升反射性能，关闭安全检查
-            field.setAccessible(true);
-            ExcelProperty annotation = field.getAnnotation(ExcelProperty.class);
-            if (annotation != null) {
-                if (annotation.index() == firstColumnIndex) {
-                    try {
-                        filedValue = field.get(object);
-                        break;
-                    } catch (IllegalAccessException e) {
-                        log.error("设置合并单元格的初始值异常：{}", e.getMessage());
-                    }
-                }
-            }
+        try {
+            ExcelColumnAccessor.of(object.getClass()).set(object, columnIndex, filedValue);
+        } catch (ExcelException e) {
+            log.error("设置合并单元格的值异常：{}", e.getMessage());
         }
-        return filedValue;
     }
 
     /**
@@ -286,29 +468,71 @@ public class EasyExcelUtil {
      * @param response  响应体
      */
     public static <T> void exportExcel(List<ExportSheet> list, String excelName, boolean merge, HttpServletResponse response) {
-        ExcelWriter build = null;
+        List<ExportSheet<?>> sheets = new ArrayList<>(list.size());
+        for (ExportSheet<?> exportSheet : list) {
+            sheets.add(exportSheet);
+        }
+        exportExcel(sheets, excelName, merge, null, response);
+    }
+
+    /**
+     * 导出excel(多个sheet) 各sheet的合并计划在线程池中并行计算 写出仍按sheet顺序进行
+     *
+     * @param list      导出数据集合
+     * @param excelName 工作表的名称
+     * @param merge     是否合并单元格
+     * @param executor  计算合并计划的线程池 为空时在当前线程计算
+     * @param response  响应体
+     */
+    public static void exportExcel(List<? extends ExportSheet<?>> list, String excelName, boolean merge, Executor executor, HttpServletResponse response) {
         try {
             resetResponse(excelName, response);
             ServletOutputStream os = response.getOutputStream();
-            build = EasyExcel.write(os).autoCloseStream(false).build();
-            for (int i = 0; i < list.size(); i++) {
-                ExportSheet exportSheet = list.get(i);
-                List data = exportSheet.getList();
-                ExcelWriterSheetBuilder sheetBuilder = EasyExcel.writerSheet(i, exportSheet.getSheetName());
-                sheetBuilder.head(exportSheet.getClazz()).registerConverter(new ExcelBigNumberConvert());
-                sheetBuilder.registerWriteHandler(new CustomImageModifyHandler());
-                if (merge) {
-                    sheetBuilder.registerWriteHandler(new CellMergeStrategy(data, true));
-                }
-                build.write(data, sheetBuilder.build());
-            }
-//            exportExcel(list, sheetName, clazz, merge, os);
+            exportExcel(list, merge, executor, os);
         } catch (IOException e) {
             throw new ExcelException("导出Excel异常");
-        } finally {
-            if (build != null) {
-                build.finish();
+        }
+    }
+
+    /**
+     * 导出excel(多个sheet) 各sheet的合并计划在线程池中并行计算 写出仍按sheet顺序进行
+     *
+     * @param list     导出数据集合
+     * @param merge    是否合并单元格
+     * @param executor 计算合并计划的线程池 为空时在当前线程计算
+     * @param os       输出流
+     */
+    public static void exportExcel(List<? extends ExportSheet<?>> list, boolean merge, Executor executor, OutputStream os) {
+        try (ExcelOperation operation = ExcelOperation.start(ExcelMetrics.EXPORT)) {
+            List<List<?>> dataList = new ArrayList<>(list.size());
+            for (ExportSheet<?> exportSheet : list) {
+                dataList.add(exportSheet.getList());
+                operation.bufferedRows(exportSheet.getList().size());
+            }
+            List<CompletableFuture<CellMergeStrategy>> mergePlans = prepareMergePlans(dataList, merge, executor);
+            // 所有sheet共用一份图片登记表 相同图片在工作簿中只保存一份
+            PictureRegistry pictureRegistry = new PictureRegistry();
+            ExcelWriter build = null;
+            try {
+                build = operation.instrument(EasyExcel.write(operation.wrap(os))).autoCloseStream(false).build();
+                for (int i = 0; i < list.size(); i++) {
+                    ExportSheet<?> exportSheet = list.get(i);
+                    List<?> data = exportSheet.getList();
+                    ExcelWriterSheetBuilder sheetBuilder = EasyExcel.writerSheet(i, exportSheet.getSheetName());
+                    sheetBuilder.head(exportSheet.getClazz()).registerConverter(new ExcelBigNumberConvert());
+                    sheetBuilder.registerWriteHandler(new CustomImageModifyHandler(null, pictureRegistry));
+                    if (merge) {
+                        sheetBuilder.registerWriteHandler(getMergePlan(mergePlans.get(i)));
+                    }
+                    build.write(data, sheetBuilder.build());
+                }
+            } finally {
+                mergePlans.forEach(future -> future.cancel(true));
+                if (build != null) {
+                    build.finish();
+                }
             }
+            operation.complete();
         }
     }
 
@@ -321,28 +545,25 @@ public class EasyExcelUtil {
      * @param response  响应体
      */
     public static void exportStringExcel(List<ExportStringSheet> list, String excelName, boolean merge, HttpServletResponse response) {
-        ExcelWriter build = null;
+        exportStringExcel(list, excelName, merge, null, response);
+    }
+
+    /**
+     * 导出excel(多个sheet) 各sheet的合并计划在线程池中并行计算 写出仍按sheet顺序进行
+     *
+     * @param list      导出数据集合
+     * @param excelName 工作表的名称
+     * @param merge     是否合并单元格
+     * @param executor  计算合并计划的线程池 为空时在当前线程计算
+     * @param response  响应体
+     */
+    public static void exportStringExcel(List<ExportStringSheet> list, String excelName, boolean merge, Executor executor, HttpServletResponse response) {
         try {
             resetResponse(excelName, response);
             ServletOutputStream os = response.getOutputStream();
-            build = EasyExcel.write(os).autoCloseStream(false).build();
-            for (int i = 0; i < list.size(); i++) {
-                ExportStringSheet exportSheet = list.get(i);
-                List<List<String>> data = exportSheet.getList();
-                ExcelWriterSheetBuilder sheetBuilder = EasyExcel.writerSheet(i, exportSheet.getSheetName());
-                sheetBuilder.head(exportSheet.getHead()).registerConverter(new ExcelBigNumberConvert());
-                sheetBuilder.registerWriteHandler(new CustomImageModifyHandler());
-                if (merge) {
-                    sheetBuilder.registerWriteHandler(new CellMergeStrategy(data, true));
-                }
-                build.write(data, sheetBuilder.build());
-            }
+            exportStringExcel(list, merge, executor, null, os);
         } catch (IOException e) {
             throw new ExcelException("导出Excel异常");
-        } finally {
-            if (build != null) {
-                build.finish();
-            }
         }
     }
 
@@ -361,30 +582,101 @@ public class EasyExcelUtil {
             List<WriteHandler> handlers
     ) {
         handlers.add(new CustomImageModifyHandler());
-        ExcelWriter build = null;
         try {
             resetResponse(excelName, response);
             ServletOutputStream os = response.getOutputStream();
-            build = EasyExcel.write(os).autoCloseStream(false).build();
-            for (int i = 0; i < list.size(); i++) {
-                ExportStringSheet exportSheet = list.get(i);
-                List<List<String>> data = exportSheet.getList();
-                ExcelWriterSheetBuilder sheetBuilder = EasyExcel.writerSheet(i, exportSheet.getSheetName());
-                sheetBuilder.head(exportSheet.getHead()).registerConverter(new ExcelBigNumberConvert());
-                handlers.forEach(sheetBuilder::registerWriteHandler);
-//                sheetBuilder.registerWriteHandler(new CustomImageModifyHandler());
-                if (merge) {
-                    sheetBuilder.registerWriteHandler(new CellMergeStrategy(data, true));
-                }
-                build.write(data, sheetBuilder.build());
-            }
+            exportStringExcel(list, merge, null, handlers, os);
         } catch (IOException e) {
             throw new ExcelException("导出Excel异常");
-        } finally {
-            if (build != null) {
-                build.finish();
+        }
+    }
+
+    /**
+     * 导出excel(多个sheet) 各sheet的合并计划在线程池中并行计算 写出仍按sheet顺序进行
+     *
+     * @param list     导出数据集合
+     * @param merge    是否合并单元格
+     * @param executor 计算合并计划的线程池 为空时在当前线程计算
+     * @param handlers 自定义处理器 为空时每个sheet使用默认的图片处理器
+     * @param os       输出流
+     */
+    public static void exportStringExcel(List<ExportStringSheet> list, boolean merge, Executor executor, List<WriteHandler> handlers, OutputStream os) {
+        try (ExcelOperation operation = ExcelOperation.start(ExcelMetrics.EXPORT)) {
+            List<List<?>> dataList = new ArrayList<>(list.size());
+            for (ExportStringSheet exportSheet : list) {
+                dataList.add(exportSheet.getList());
+                operation.bufferedRows(exportSheet.getList().size());
+            }
+            List<CompletableFuture<CellMergeStrategy>> mergePlans = prepareMergePlans(dataList, merge, executor);
+            // 所有sheet共用一份图片登记表 相同图片在工作簿中只保存一份
+            PictureRegistry pictureRegistry = new PictureRegistry();
+            ExcelWriter build = null;
+            try {
+                build = operation.instrument(EasyExcel.write(operation.wrap(os))).autoCloseStream(false).build();
+                for (int i = 0; i < list.size(); i++) {
+                    ExportStringSheet exportSheet = list.get(i);
+                    List<List<String>> data = exportSheet.getList();
+                    ExcelWriterSheetBuilder sheetBuilder = EasyExcel.writerSheet(i, exportSheet.getSheetName());
+                    sheetBuilder.head(exportSheet.getHead()).registerConverter(new ExcelBigNumberConvert());
+                    if (handlers == null) {
+                        sheetBuilder.registerWriteHandler(new CustomImageModifyHandler(null, pictureRegistry));
+                    } else {
+                        handlers.forEach(sheetBuilder::registerWriteHandler);
+                    }
+                    if (merge) {
+                        sheetBuilder.registerWriteHandler(getMergePlan(mergePlans.get(i)));
+                    }
+                    build.write(data, sheetBuilder.build());
+                }
+            } finally {
+                mergePlans.forEach(future -> future.cancel(true));
+                if (build != null) {
+                    build.finish();
+                }
+            }
+            operation.complete();
+        }
+    }
+
+    /**
+     * 为每个sheet创建合并处理器 并在线程池中提前计算合并计划
+     *
+     * @param dataList 每个sheet的数据
+     * @param merge    是否合并单元格
+     * @param executor 线程池 为空时在写出时计算
+     * @return 每个sheet的合并处理器
+     */
+    private static List<CompletableFuture<CellMergeStrategy>> prepareMergePlans(List<List<?>> dataList, boolean merge, Executor executor) {
+        List<CompletableFuture<CellMergeStrategy>> mergePlans = new ArrayList<>(dataList.size());
+        for (List<?> data : dataList) {
+            if (!merge) {
+                mergePlans.add(CompletableFuture.completedFuture(null));
+                continue;
+            }
+            CellMergeStrategy strategy = new CellMergeStrategy(data, true);
+            if (executor == null) {
+                mergePlans.add(CompletableFuture.completedFuture(strategy));
+            } else {
+                mergePlans.add(CompletableFuture.supplyAsync(() -> {
+                    strategy.prepare();
+                    return strategy;
+                }, executor));
             }
         }
+        return mergePlans;
+    }
+
+    /**
+     * 等待合并计划计算完成
+     */
+    private static CellMergeStrategy getMergePlan(CompletableFuture<CellMergeStrategy> mergePlan) {
+        try {
+            return mergePlan.join();
+        } catch (CompletionException e) {
+            ExcelException exception = new ExcelException("计算合并单元格异常：{}", e.getCause().getMessage());
+            exception.initCause(e.getCause());
+            throw exception;
+        }
     }
 
     /**
@@ -453,19 +745,23 @@ public class EasyExcelUtil {
      * @param os        输出流
      */
     public static void exportCustomExcel(List<List<String>> list, String sheetName, List<List<String>> head, boolean merge, OutputStream os) {
-        ExcelWriterSheetBuilder builder = EasyExcel.write(os).head(head)
-                .autoCloseStream(false)
-                .registerWriteHandler(new CustomImageModifyHandler())
-                // 自动适配
+        try (ExcelOperation operation = ExcelOperation.start(ExcelMetrics.EXPORT)) {
+            operation.bufferedRows(list.size());
+            ExcelWriterSheetBuilder builder = operation.instrument(EasyExcel.write(operation.wrap(os))).head(head)
+                    .autoCloseStream(false)
+                    .registerWriteHandler(new CustomImageModifyHandler())
+                    // 自动适配
 //            .registerWriteHandler(new LongestMatchColumnWidthStyleStrategy())
-                // 大数值自动转换 防止失真
-                .registerConverter(new ExcelBigNumberConvert())
-                .sheet(sheetName);
-        if (merge) {
-            // 合并处理器
-            builder.registerWriteHandler(new CellMergeStrategy(list, true));
+                    // 大数值自动转换 防止失真
+                    .registerConverter(new ExcelBigNumberConvert())
+                    .sheet(sheetName);
+            if (merge) {
+                // 合并处理器
+                builder.registerWriteHandler(new CellMergeStrategy(list, true));
+            }
+            builder.doWrite(list);
+            operation.complete();
         }
-        builder.doWrite(list);
     }
 
     /**
@@ -478,18 +774,22 @@ public class EasyExcelUtil {
      * @param os            输出流
      */
     public static void exportCustomExcel(List<List<String>> list, String sheetName, List<List<String>> head, List<WriteHandler> writeHandlers, OutputStream os) {
-        ExcelWriterSheetBuilder builder = EasyExcel.write(os).head(head)
-                .autoCloseStream(false)
-                .registerWriteHandler(new CustomImageModifyHandler())
-                // 自动适配
+        try (ExcelOperation operation = ExcelOperation.start(ExcelMetrics.EXPORT)) {
+            operation.bufferedRows(list.size());
+            ExcelWriterSheetBuilder builder = operation.instrument(EasyExcel.write(operation.wrap(os))).head(head)
+                    .autoCloseStream(false)
+                    .registerWriteHandler(new CustomImageModifyHandler())
+                    // 自动适配
 //            .registerWriteHandler(new LongestMatchColumnWidthStyleStrategy())
-                // 大数值自动转换 防止失真
-                .registerConverter(new ExcelBigNumberConvert())
-                .sheet(sheetName);
-        // 合并处理器
-        writeHandlers.forEach(builder::registerWriteHandler);
+                    // 大数值自动转换 防止失真
+                    .registerConverter(new ExcelBigNumberConvert())
+                    .sheet(sheetName);
+            // 合并处理器
+            writeHandlers.forEach(builder::registerWriteHandler);
 
-        builder.doWrite(list);
+            builder.doWrite(list);
+            operation.complete();
+        }
     }
 
 
@@ -527,19 +827,42 @@ public class EasyExcelUtil {
      * @param os        输出流
      */
     public static <T> void exportExcel(List<T> list, String sheetName, Class<T> clazz, boolean merge, OutputStream os) {
-        ExcelWriterSheetBuilder builder = EasyExcel.write(os, clazz)
-                .autoCloseStream(false)
-                .registerWriteHandler(new CustomImageModifyHandler())
-                // 自动适配
-//            .registerWriteHandler(new LongestMatchColumnWidthStyleStrategy()
-                // 大数值自动转换 防止失真
-                .registerConverter(new ExcelBigNumberConvert())
-                .sheet(sheetName);
-        if (merge) {
-            // 合并处理器
-            builder.registerWriteHandler(new CellMergeStrategy(list, true));
+        exportList(list, sheetName, clazz, merge, null, Collections.emptyList(), 0, os);
+    }
+
+    /**
+     * 导出excel 导出前在线程池中并行处理图片(加载来源、缩小到单元格大小、识别真实格式)
+     *
+     * @param list      导出数据集合
+     * @param sheetName 工作表的名称
+     * @param clazz     实体类
+     * @param merge     是否合并单元格
+     * @param pipeline  图片预处理
+     * @param response  响应体
+     */
+    public static <T> void exportExcel(List<T> list, String sheetName, Class<T> clazz, boolean merge, ImagePipeline pipeline, HttpServletResponse response) {
+        try {
+            resetResponse(sheetName, response);
+            ServletOutputStream os = response.getOutputStream();
+            exportExcel(list, sheetName, clazz, merge, pipeline, os);
+        } catch (IOException e) {
+            throw new ExcelException("导出Excel异常");
         }
-        builder.doWrite(list);
+    }
+
+    /**
+     * 导出excel 导出前在线程池中并行处理图片(加载来源、缩小到单元格大小、识别真实格式)
+     * pipeline 开启 lazy 时只记录来源的图片在写出单元格时才加载，插入后立即释放
+     *
+     * @param list      导出数据集合
+     * @param sheetName 工作表的名称
+     * @param clazz     实体类
+     * @param merge     是否合并单元格
+     * @param pipeline  图片预处理
+     * @param os        输出流
+     */
+    public static <T> void exportExcel(List<T> list, String sheetName, Class<T> clazz, boolean merge, ImagePipeline pipeline, OutputStream os) {
+        exportList(list, sheetName, clazz, merge, pipeline, Collections.emptyList(), 0, os);
     }
 
     /**
@@ -559,21 +882,458 @@ public class EasyExcelUtil {
             OutputStream os,
             List<WriteHandler> handlers
     ) {
+        exportList(list, sheetName, clazz, merge, null, handlers, 0, os);
+    }
 
-        ExcelWriterBuilder builder = EasyExcel.write(os, clazz);
-        builder.autoCloseStream(false);
-        ArrayList<WriteHandler> writeHandlers = new ArrayList<>();
-        writeHandlers.add(new CustomImageModifyHandler());
-        writeHandlers.addAll(handlers);
-        writeHandlers.forEach(builder::registerWriteHandler);
+    /**
+     * 分批导出excel(适用于大数据量) 逐批写入同一个sheet 内存中只保留一批数据
+     *
+     * @param iterator  数据迭代器
+     * @param batchSize 每批条数
+     * @param sheetName 工作表的名称
+     * @param clazz     实体类
+     * @param merge     是否合并单元格
+     * @param response  响应体
+     */
+    public static <T> void exportExcel(Iterator<T> iterator, int batchSize, String sheetName, Class<T> clazz, boolean merge, HttpServletResponse response) {
+        try {
+            resetResponse(sheetName, response);
+            ServletOutputStream os = response.getOutputStream();
+            exportExcel(iterator, batchSize, sheetName, clazz, merge, os);
+        } catch (IOException e) {
+            throw new ExcelException("导出Excel异常");
+        }
+    }
 
-        builder.registerConverter(new ExcelBigNumberConvert());
-        ExcelWriterSheetBuilder writerSheetBuilder = builder.sheet(sheetName);
-        if (merge) {
-            // 合并处理器
-            builder.registerWriteHandler(new CellMergeStrategy(list, true));
+    /**
+     * 分批导出excel(适用于大数据量) 逐批写入同一个sheet 内存中只保留一批数据
+     *
+     * @param iterator  数据迭代器
+     * @param batchSize 每批条数
+     * @param sheetName 工作表的名称
+     * @param clazz     实体类
+     * @param merge     是否合并单元格
+     * @param os        输出流
+     */
+    public static <T> void exportExcel(Iterator<T> iterator, int batchSize, String sheetName, Class<T> clazz, boolean merge, OutputStream os) {
+        exportExcel(iterator, batchSize, sheetName, clazz, merge, 0, os);
+    }
+
+    /**
+     * 分批导出excel(适用于大数据量) 超过单sheet行数时自动新建sheet 名称依次为 sheetName_2、sheetName_3...
+     *
+     * @param iterator        数据迭代器
+     * @param batchSize       每批条数
+     * @param sheetName       工作表的名称
+     * @param clazz           实体类
+     * @param merge           是否合并单元格
+     * @param maxRowsPerSheet 每个sheet最多的数据行数 小于等于0时使用xlsx的最大行数
+     * @param response        响应体
+     */
+    public static <T> void exportExcel(Iterator<T> iterator, int batchSize, String sheetName, Class<T> clazz, boolean merge, int maxRowsPerSheet, HttpServletResponse response) {
+        try {
+            resetResponse(sheetName, response);
+            ServletOutputStream os = response.getOutputStream();
+            exportExcel(iterator, batchSize, sheetName, clazz, merge, maxRowsPerSheet, os);
+        } catch (IOException e) {
+            throw new ExcelException("导出Excel异常");
+        }
+    }
+
+    /**
+     * 分批导出excel(适用于大数据量) 超过单sheet行数时自动新建sheet 名称依次为 sheetName_2、sheetName_3...
+     *
+     * @param iterator        数据迭代器
+     * @param batchSize       每批条数
+     * @param sheetName       工作表的名称
+     * @param clazz           实体类
+     * @param merge           是否合并单元格
+     * @param maxRowsPerSheet 每个sheet最多的数据行数 小于等于0时使用xlsx的最大行数
+     * @param os              输出流
+     */
+    public static <T> void exportExcel(Iterator<T> iterator, int batchSize, String sheetName, Class<T> clazz, boolean merge, int maxRowsPerSheet, OutputStream os) {
+        exportPages(partition(iterator, batchSize), sheetName, clazz, merge, maxRowsPerSheet, os);
+    }
+
+    /**
+     * 分批导出excel(适用于大数据量) 导出完成后关闭数据流
+     *
+     * @param stream    数据流
+     * @param batchSize 每批条数
+     * @param sheetName 工作表的名称
+     * @param clazz     实体类
+     * @param merge     是否合并单元格
+     * @param response  响应体
+     */
+    public static <T> void exportExcel(Stream<T> stream, int batchSize, String sheetName, Class<T> clazz, boolean merge, HttpServletResponse response) {
+        try {
+            resetResponse(sheetName, response);
+            ServletOutputStream os = response.getOutputStream();
+            exportExcel(stream, batchSize, sheetName, clazz, merge, os);
+        } catch (IOException e) {
+            throw new ExcelException("导出Excel异常");
+        }
+    }
+
+    /**
+     * 分批导出excel(适用于大数据量) 导出完成后关闭数据流
+     *
+     * @param stream    数据流
+     * @param batchSize 每批条数
+     * @param sheetName 工作表的名称
+     * @param clazz     实体类
+     * @param merge     是否合并单元格
+     * @param os        输出流
+     */
+    public static <T> void exportExcel(Stream<T> stream, int batchSize, String sheetName, Class<T> clazz, boolean merge, OutputStream os) {
+        exportExcel(stream, batchSize, sheetName, clazz, merge, 0, os);
+    }
+
+    /**
+     * 分批导出excel(适用于大数据量) 超过单sheet行数时自动新建sheet 导出完成后关闭数据流
+     *
+     * @param stream          数据流
+     * @param batchSize       每批条数
+     * @param sheetName       工作表的名称
+     * @param clazz           实体类
+     * @param merge           是否合并单元格
+     * @param maxRowsPerSheet 每个sheet最多的数据行数 小于等于0时使用xlsx的最大行数
+     * @param response        响应体
+     */
+    public static <T> void exportExcel(Stream<T> stream, int batchSize, String sheetName, Class<T> clazz, boolean merge, int maxRowsPerSheet, HttpServletResponse response) {
+        try {
+            resetResponse(sheetName, response);
+            ServletOutputStream os = response.getOutputStream();
+            exportExcel(stream, batchSize, sheetName, clazz, merge, maxRowsPerSheet, os);
+        } catch (IOException e) {
+            throw new ExcelException("导出Excel异常");
+        }
+    }
+
+    /**
+     * 分批导出excel(适用于大数据量) 超过单sheet行数时自动新建sheet 导出完成后关闭数据流
+     *
+     * @param stream          数据流
+     * @param batchSize       每批条数
+     * @param sheetName       工作表的名称
+     * @param clazz           实体类
+     * @param merge           是否合并单元格
+     * @param maxRowsPerSheet 每个sheet最多的数据行数 小于等于0时使用xlsx的最大行数
+     * @param os              输出流
+     */
+    public static <T> void exportExcel(Stream<T> stream, int batchSize, String sheetName, Class<T> clazz, boolean merge, int maxRowsPerSheet, OutputStream os) {
+        try (Stream<T> s = stream) {
+            exportExcel(s.iterator(), batchSize, sheetName, clazz, merge, maxRowsPerSheet, os);
         }
-        writerSheetBuilder.doWrite(list);
+    }
+
+    /**
+     * 分页导出excel(适用于大数据量) 从第1页开始查询 查询结果为空时结束
+     *
+     * @param pageFetcher 分页查询 参数为页码
+     * @param sheetName   工作表的名称
+     * @param clazz       实体类
+     * @param merge       是否合并单元格
+     * @param response    响应体
+     */
+    public static <T> void exportExcel(Function<Integer, List<T>> pageFetcher, String sheetName, Class<T> clazz, boolean merge, HttpServletResponse response) {
+        try {
+            resetResponse(sheetName, response);
+            ServletOutputStream os = response.getOutputStream();
+            exportExcel(pageFetcher, sheetName, clazz, merge, os);
+        } catch (IOException e) {
+            throw new ExcelException("导出Excel异常");
+        }
+    }
+
+    /**
+     * 分页导出excel(适用于大数据量) 从第1页开始查询 查询结果为空时结束
+     *
+     * @param pageFetcher 分页查询 参数为页码
+     * @param sheetName   工作表的名称
+     * @param clazz       实体类
+     * @param merge       是否合并单元格
+     * @param os          输出流
+     */
+    public static <T> void exportExcel(Function<Integer, List<T>> pageFetcher, String sheetName, Class<T> clazz, boolean merge, OutputStream os) {
+        exportExcel(pageFetcher, sheetName, clazz, merge, 0, os);
+    }
+
+    /**
+     * 分页导出excel(适用于大数据量) 超过单sheet行数时自动新建sheet 名称依次为 sheetName_2、sheetName_3...
+     *
+     * @param pageFetcher     分页查询 参数为页码
+     * @param sheetName       工作表的名称
+     * @param clazz           实体类
+     * @param merge           是否合并单元格
+     * @param maxRowsPerSheet 每个sheet最多的数据行数 小于等于0时使用xlsx的最大行数
+     * @param response        响应体
+     */
+    public static <T> void exportExcel(Function<Integer, List<T>> pageFetcher, String sheetName, Class<T> clazz, boolean merge, int maxRowsPerSheet, HttpServletResponse response) {
+        try {
+            resetResponse(sheetName, response);
+            ServletOutputStream os = response.getOutputStream();
+            exportExcel(pageFetcher, sheetName, clazz, merge, maxRowsPerSheet, os);
+        } catch (IOException e) {
+            throw new ExcelException("导出Excel异常");
+        }
+    }
+
+    /**
+     * 分页导出excel(适用于大数据量) 超过单sheet行数时自动新建sheet 名称依次为 sheetName_2、sheetName_3...
+     *
+     * @param pageFetcher     分页查询 参数为页码
+     * @param sheetName       工作表的名称
+     * @param clazz           实体类
+     * @param merge           是否合并单元格
+     * @param maxRowsPerSheet 每个sheet最多的数据行数 小于等于0时使用xlsx的最大行数
+     * @param os              输出流
+     */
+    public static <T> void exportExcel(Function<Integer, List<T>> pageFetcher, String sheetName, Class<T> clazz, boolean merge, int maxRowsPerSheet, OutputStream os) {
+        exportPages(pages(pageFetcher), sheetName, clazz, merge, maxRowsPerSheet, os);
+    }
+
+    /**
+     * 导出excel 超过单sheet行数时自动新建sheet 名称依次为 sheetName_2、sheetName_3...
+     *
+     * @param list            导出数据集合
+     * @param sheetName       工作表的名称
+     * @param clazz           实体类
+     * @param merge           是否合并单元格
+     * @param maxRowsPerSheet 每个sheet最多的数据行数 小于等于0时使用xlsx的最大行数
+     * @param response        响应体
+     */
+    public static <T> void exportExcel(List<T> list, String sheetName, Class<T> clazz, boolean merge, int maxRowsPerSheet, HttpServletResponse response) {
+        try {
+            resetResponse(sheetName, response);
+            ServletOutputStream os = response.getOutputStream();
+            exportExcel(list, sheetName, clazz, merge, maxRowsPerSheet, os);
+        } catch (IOException e) {
+            throw new ExcelException("导出Excel异常");
+        }
+    }
+
+    /**
+     * 导出excel 超过单sheet行数时自动新建sheet 名称依次为 sheetName_2、sheetName_3...
+     *
+     * @param list            导出数据集合
+     * @param sheetName       工作表的名称
+     * @param clazz           实体类
+     * @param merge           是否合并单元格
+     * @param maxRowsPerSheet 每个sheet最多的数据行数 小于等于0时使用xlsx的最大行数
+     * @param os              输出流
+     */
+    public static <T> void exportExcel(List<T> list, String sheetName, Class<T> clazz, boolean merge, int maxRowsPerSheet, OutputStream os) {
+        exportList(list, sheetName, clazz, merge, null, Collections.emptyList(), maxRowsPerSheet, os);
+    }
+
+    /**
+     * 导出集合 超过单sheet行数时按行数拆分到多个sheet 每个sheet按自己的数据计算合并单元格(包括横向合并)
+     *
+     * @param list            导出数据集合
+     * @param sheetName       工作表的名称
+     * @param clazz           实体类
+     * @param merge           是否合并单元格
+     * @param pipeline        图片预处理 为空时不预处理
+     * @param handlers        自定义处理器
+     * @param maxRowsPerSheet 每个sheet最多的数据行数 小于等于0时使用xlsx的最大行数
+     * @param os              输出流
+     */
+    private static <T> void exportList(List<T> list, String sheetName, Class<T> clazz, boolean merge, ImagePipeline pipeline,
+                                       List<WriteHandler> handlers, int maxRowsPerSheet, OutputStream os) {
+        try (ExcelOperation operation = ExcelOperation.start(ExcelMetrics.EXPORT)) {
+            List<T> data = list == null ? Collections.emptyList() : list;
+            operation.bufferedRows(data.size());
+            if (pipeline != null) {
+                long start = operation.startStage();
+                pipeline.prepare(data);
+                operation.endStage(ExcelMetrics.STAGE_IMAGE_PREPARE, start);
+            }
+            int sheetRowLimit = getSheetRowLimit(clazz, maxRowsPerSheet);
+            ExcelWriterBuilder builder = operation.instrument(EasyExcel.write(operation.wrap(os), clazz))
+                    .autoCloseStream(false)
+                    // 大数值自动转换 防止失真
+                    .registerConverter(new ExcelBigNumberConvert());
+            handlers.forEach(builder::registerWriteHandler);
+            ExcelWriter excelWriter = builder.build();
+            PictureRegistry pictureRegistry = new PictureRegistry();
+            try {
+                int sheetNo = 0;
+                int offset = 0;
+                do {
+                    int end = Math.min(data.size(), offset + sheetRowLimit);
+                    List<T> chunk = offset == 0 && end == data.size() ? data : data.subList(offset, end);
+                    ExcelWriterSheetBuilder sheetBuilder = EasyExcel.writerSheet(sheetNo, getRolloverSheetName(sheetNo, sheetName))
+                            .registerWriteHandler(new CustomImageModifyHandler(pipeline, pictureRegistry));
+                    if (merge) {
+                        // 合并处理器
+                        sheetBuilder.registerWriteHandler(new CellMergeStrategy(chunk, true));
+                    }
+                    excelWriter.write(chunk, sheetBuilder.build());
+                    sheetNo++;
+                    offset = end;
+                } while (offset < data.size());
+            } finally {
+                excelWriter.finish();
+            }
+            operation.complete();
+        }
+    }
+
+    /**
+     * 逐批写入sheet 达到行数上限时新建sheet 表头和转换器保持一致 合并单元格使用流式合并策略(只做纵向合并)
+     *
+     * @param pages           数据批次
+     * @param sheetName       工作表的名称
+     * @param clazz           实体类
+     * @param merge           是否合并单元格
+     * @param maxRowsPerSheet 每个sheet最多的数据行数 小于等于0时使用xlsx的最大行数
+     * @param os              输出流
+     */
+    private static <T> void exportPages(Iterator<List<T>> pages, String sheetName, Class<T> clazz, boolean merge, int maxRowsPerSheet, OutputStream os) {
+        try (ExcelOperation operation = ExcelOperation.start(ExcelMetrics.EXPORT)) {
+            int sheetRowLimit = getSheetRowLimit(clazz, maxRowsPerSheet);
+            ExcelWriterBuilder builder = operation.instrument(EasyExcel.write(operation.wrap(os), clazz))
+                    .autoCloseStream(false)
+                    // 大数值自动转换 防止失真
+                    .registerConverter(new ExcelBigNumberConvert());
+            if (merge) {
+                // 流式合并处理器 切换sheet或写出结束时合并最后一段
+                builder.registerWriteHandler(new StreamCellMergeStrategy(clazz));
+            }
+            ExcelWriter excelWriter = builder.build();
+            PictureRegistry pictureRegistry = new PictureRegistry();
+            try {
+                int sheetNo = 0;
+                WriteSheet writeSheet = buildRolloverSheet(sheetNo, sheetName, pictureRegistry);
+                int sheetRows = 0;
+                boolean written = false;
+                while (pages.hasNext()) {
+                    List<T> page = pages.next();
+                    if (isEmpty(page)) {
+                        continue;
+                    }
+                    operation.bufferedRows(page.size());
+                    int offset = 0;
+                    while (offset < page.size()) {
+                        if (sheetRows == sheetRowLimit) {
+                            writeSheet = buildRolloverSheet(++sheetNo, sheetName, pictureRegistry);
+                            sheetRows = 0;
+                        }
+                        int end = Math.min(page.size(), offset + sheetRowLimit - sheetRows);
+                        excelWriter.write(offset == 0 && end == page.size() ? page : page.subList(offset, end), writeSheet);
+                        sheetRows += end - offset;
+                        offset = end;
+                        written = true;
+                    }
+                }
+                if (!written) {
+                    // 没有数据时只写出表头
+                    excelWriter.write(Collections.emptyList(), writeSheet);
+                }
+            } finally {
+                excelWriter.finish();
+            }
+            operation.complete();
+        }
+    }
+
+    /**
+     * 新建sheet 第一个sheet使用原名称 之后为 sheetName_2、sheetName_3...
+     * 图片处理器按sheet记录已处理的单元格 每个sheet单独注册 图片登记表所有sheet共用
+     */
+    private static WriteSheet buildRolloverSheet(int sheetNo, String sheetName, PictureRegistry pictureRegistry) {
+        return EasyExcel.writerSheet(sheetNo, getRolloverSheetName(sheetNo, sheetName))
+                .registerWriteHandler(new CustomImageModifyHandler(null, pictureRegistry))
+                .build();
+    }
+
+    /**
+     * 拆分后的sheet名称 第一个sheet使用原名称 之后为 sheetName_2、sheetName_3...
+     */
+    private static String getRolloverSheetName(int sheetNo, String sheetName) {
+        return sheetNo == 0 ? sheetName : sheetName + "_" + (sheetNo + 1);
+    }
+
+    /**
+     * 计算每个sheet最多的数据行数 不超过xlsx的最大行数减去表头行数
+     */
+    private static int getSheetRowLimit(Class<?> clazz, int maxRowsPerSheet) {
+        int limit = SpreadsheetVersion.EXCEL2007.getMaxRows() - getHeadRowNumber(clazz);
+        return maxRowsPerSheet <= 0 ? limit : Math.min(maxRowsPerSheet, limit);
+    }
+
+    /**
+     * 实体类的表头行数 即 {@link ExcelProperty#value()} 的最大长度
+     */
+    private static int getHeadRowNumber(Class<?> clazz) {
+        int headRowNumber = 1;
+        for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                ExcelProperty annotation = field.getAnnotation(ExcelProperty.class);
+                if (annotation != null && field.getAnnotation(ExcelIgnore.class) == null) {
+                    headRowNumber = Math.max(headRowNumber, annotation.value().length);
+                }
+            }
+        }
+        return headRowNumber;
+    }
+
+    /**
+     * 将迭代器按批次切分
+     */
+    private static <T> Iterator<List<T>> partition(Iterator<T> iterator, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("批次大小必须大于0");
+        }
+        return new Iterator<List<T>>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public List<T> next() {
+                if (!iterator.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<T> batch = new ArrayList<>(batchSize);
+                while (batch.size() < batchSize && iterator.hasNext()) {
+                    batch.add(iterator.next());
+                }
+                return batch;
+            }
+        };
+    }
+
+    /**
+     * 从第1页开始逐页查询 查询结果为空时结束
+     */
+    private static <T> Iterator<List<T>> pages(Function<Integer, List<T>> pageFetcher) {
+        return new Iterator<List<T>>() {
+            private int pageNo = 1;
+            private List<T> page;
+            private boolean finished;
+
+            @Override
+            public boolean hasNext() {
+                if (page == null && !finished) {
+                    page = pageFetcher.apply(pageNo++);
+                    finished = isEmpty(page);
+                }
+                return !finished;
+            }
+
+            @Override
+            public List<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<T> current = page;
+                page = null;
+                return current;
+            }
+        };
     }
 
     /**
@@ -602,26 +1362,27 @@ public class EasyExcelUtil {
      * @param templatePath 模板路径 resource 目录下的路径包括模板文件名
      *                     例如: excel/temp.xlsx
      *                     重点: 模板文件必须放置到启动类对应的 resource 目录下
+     *                     模板只读取一次并缓存，见 {@link ExcelTemplateCache}
      * @param data         模板需要的数据
      * @param os           输出流
      */
     public static void exportTemplate(List<Object> data, String templatePath, OutputStream os) {
-        ClassPathResource templateResource = new ClassPathResource(templatePath);
-        ExcelWriter excelWriter = EasyExcel.write(os)
-                .withTemplate(templateResource.getStream())
-                .autoCloseStream(false)
-                // 大数值自动转换 防止失真
-                .registerConverter(new ExcelBigNumberConvert())
-                .build();
-        WriteSheet writeSheet = EasyExcel.writerSheet().build();
-        if (CollUtil.isEmpty(data)) {
-            throw new IllegalArgumentException("数据为空");
-        }
-        // 单表多数据导出 模板格式为 {.属性}
-        for (Object d : data) {
-            excelWriter.fill(d, writeSheet);
+        try (ExcelOperation operation = ExcelOperation.start(ExcelMetrics.EXPORT)) {
+            ExcelWriter excelWriter = operation.instrument(EasyExcel.write(operation.wrap(os)))
+                    .withTemplate(ExcelTemplateCache.getDefault().open(templatePath))
+                    .autoCloseStream(false)
+                    // 大数值自动转换 防止失真
+                    .registerConverter(new ExcelBigNumberConvert())
+                    .build();
+            WriteSheet writeSheet = EasyExcel.writerSheet().build();
+            if (CollUtil.isEmpty(data)) {
+                throw new IllegalArgumentException("数据为空");
+            }
+            // 单表多数据导出 模板格式为 {.属性}，整个列表一次填充
+            excelWriter.fill(data, writeSheet);
+            excelWriter.finish();
+            operation.complete();
         }
-        excelWriter.finish();
     }
 
     /**
@@ -650,32 +1411,44 @@ public class EasyExcelUtil {
      * @param templatePath 模板路径 resource 目录下的路径包括模板文件名
      *                     例如: excel/temp.xlsx
      *                     重点: 模板文件必须放置到启动类对应的 resource 目录下
+     *                     模板只读取一次并缓存，见 {@link ExcelTemplateCache}
      * @param data         模板需要的数据
      * @param os           输出流
      */
     public static void exportTemplateMultiList(Map<String, Object> data, String templatePath, OutputStream os) {
-        ClassPathResource templateResource = new ClassPathResource(templatePath);
-        ExcelWriter excelWriter = EasyExcel.write(os)
-                .withTemplate(templateResource.getStream())
-                .autoCloseStream(false)
-                // 大数值自动转换 防止失真
-                .registerConverter(new ExcelBigNumberConvert())
-                .build();
-        WriteSheet writeSheet = EasyExcel.writerSheet().build();
-        if (CollUtil.isEmpty(data)) {
-            throw new IllegalArgumentException("数据为空");
-        }
-        for (Map.Entry<String, Object> map : data.entrySet()) {
+        try (ExcelOperation operation = ExcelOperation.start(ExcelMetrics.EXPORT)) {
+            ExcelWriter excelWriter = operation.instrument(EasyExcel.write(operation.wrap(os)))
+                    .withTemplate(ExcelTemplateCache.getDefault().open(templatePath))
+                    .autoCloseStream(false)
+                    // 大数值自动转换 防止失真
+                    .registerConverter(new ExcelBigNumberConvert())
+                    .build();
+            WriteSheet writeSheet = EasyExcel.writerSheet().build();
+            if (CollUtil.isEmpty(data)) {
+                throw new IllegalArgumentException("数据为空");
+            }
             // 设置列表后续还有数据
             FillConfig fillConfig = FillConfig.builder().forceNewRow(Boolean.TRUE).build();
-            if (map.getValue() instanceof Collection) {
-                // 多表导出必须使用 FillWrapper
-                excelWriter.fill(new FillWrapper(map.getKey(), (Collection<?>) map.getValue()), fillConfig, writeSheet);
-            } else {
-                excelWriter.fill(map.getValue(), writeSheet);
+            // Map 类型的单值数据合并后一次填充，实体对象保留各自的字段格式注解单独填充
+            Map<String, Object> values = new HashMap<>();
+            for (Map.Entry<String, Object> map : data.entrySet()) {
+                if (map.getValue() instanceof Collection) {
+                    // 多表导出必须使用 FillWrapper
+                    excelWriter.fill(new FillWrapper(map.getKey(), (Collection<?>) map.getValue()), fillConfig, writeSheet);
+                } else if (map.getValue() instanceof Map) {
+                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) map.getValue()).entrySet()) {
+                        values.put(String.valueOf(entry.getKey()), entry.getValue());
+                    }
+                } else {
+                    excelWriter.fill(map.getValue(), writeSheet);
+                }
             }
+            if (!values.isEmpty()) {
+                excelWriter.fill(values, writeSheet);
+            }
+            excelWriter.finish();
+            operation.complete();
         }
-        excelWriter.finish();
     }
 
     /**
@@ -696,24 +1469,7 @@ public class EasyExcelUtil {
      * @return 解析后值
      */
     public static String convertByExp(String propertyValue, String converterExp, String separator) {
-        StringBuilder propertyString = new StringBuilder();
-        String[] convertSource = converterExp.split(COMMA_SEPARATOR);
-        for (String item : convertSource) {
-            String[] itemArray = item.split("=");
-            if (StrUtil.containsAny(propertyValue, separator)) {
-                for (String value : propertyValue.split(separator)) {
-                    if (itemArray[0].equals(value)) {
-                        propertyString.append(itemArray[1] + separator);
-                        break;
-                    }
-                }
-            } else {
-                if (itemArray[0].equals(propertyValue)) {
-                    return itemArray[1];
-                }
-            }
-        }
-        return StringUtils.stripEnd(propertyString.toString(), separator);
+        return ExpDictionary.of(converterExp).convert(propertyValue, separator);
     }
 
     /**
@@ -725,24 +1481,7 @@ public class EasyExcelUtil {
      * @return 解析后值
      */
     public static String reverseByExp(String propertyValue, String converterExp, String separator) {
-        StringBuilder propertyString = new StringBuilder();
-        String[] convertSource = converterExp.split(COMMA_SEPARATOR);
-        for (String item : convertSource) {
-            String[] itemArray = item.split("=");
-            if (StringUtils.containsAny(propertyValue, separator)) {
-                for (String value : propertyValue.split(separator)) {
-                    if (itemArray[1].equals(value)) {
-                        propertyString.append(itemArray[0] + separator);
-                        break;
-                    }
-                }
-            } else {
-                if (itemArray[1].equals(propertyValue)) {
-                    return itemArray[0];
-                }
-            }
-        }
-        return StringUtils.stripEnd(propertyString.toString(), separator);
+        return ExpDictionary.of(converterExp).reverse(propertyValue, separator);
     }
 
     /**
@@ -0,0 +1,25 @@
+package io.github.cookiegege.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 字典格式化，配合 {@link io.github.cookiegege.convert.ExcelDictConvert} 使用
+ *
+ * @author JoSuper
+ */
+@Target({ElementType.FIELD})
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+public @interface ExcelDictFormat {
+
+    /**
+     * 读取内容转表达式 (如: 0=男,1=女,2=未知)
+     */
+    String readConverterExp() default "";
+
+    /**
+     * 分隔符，读取字符串组内容
+     */
+    String separator() default ",";
+
+}
@@ -0,0 +1,67 @@
+package io.github.cookiegege.convert;
+
+import cn.hutool.core.convert.Convert;
+import com.alibaba.excel.converters.Converter;
+import com.alibaba.excel.enums.CellDataTypeEnum;
+import com.alibaba.excel.metadata.GlobalConfiguration;
+import com.alibaba.excel.metadata.data.ReadCellData;
+import com.alibaba.excel.metadata.data.WriteCellData;
+import com.alibaba.excel.metadata.property.ExcelContentProperty;
+
+import java.math.BigDecimal;
+
+/**
+ * BigDecimal 大数值转换
+ * Excel 只保留15位有效数字，有效数字超过15位的数值输出为字符串，避免精度丢失
+ *
+ * @author JoSuper
+ */
+public class ExcelBigDecimalConvert implements Converter<BigDecimal> {
+
+    /**
+     * Excel 数值的有效数字位数
+     */
+    private static final int MAX_PRECISION = 15;
+
+    @Override
+    public Class<BigDecimal> supportJavaTypeKey() {
+        return BigDecimal.class;
+    }
+
+    @Override
+    public CellDataTypeEnum supportExcelTypeKey() {
+        return CellDataTypeEnum.STRING;
+    }
+
+    @Override
+    public BigDecimal convertToJavaData(ReadCellData<?> cellData, ExcelContentProperty contentProperty, GlobalConfiguration globalConfiguration) {
+        if (cellData.getType() == CellDataTypeEnum.NUMBER && cellData.getNumberValue() != null) {
+            return cellData.getNumberValue();
+        }
+        Object data = cellData.getType() == CellDataTypeEnum.STRING ? cellData.getStringValue() : cellData.getData();
+        if (data instanceof String) {
+            String str = ((String) data).trim();
+            if (str.isEmpty()) {
+                return null;
+            }
+            try {
+                return new BigDecimal(str);
+            } catch (NumberFormatException e) {
+                return Convert.toBigDecimal(str);
+            }
+        }
+        return Convert.toBigDecimal(data);
+    }
+
+    @Override
+    public WriteCellData<Object> convertToExcelData(BigDecimal object, ExcelContentProperty contentProperty, GlobalConfiguration globalConfiguration) {
+        if (object == null) {
+            return new WriteCellData<>(CellDataTypeEnum.EMPTY);
+        }
+        if (object.precision() <= MAX_PRECISION) {
+            return new WriteCellData<>(object);
+        }
+        return new WriteCellData<>(object.toPlainString());
+    }
+
+}
@@ -0,0 +1,61 @@
+package io.github.cookiegege.convert;
+
+import cn.hutool.core.convert.Convert;
+import com.alibaba.excel.converters.Converter;
+import com.alibaba.excel.enums.CellDataTypeEnum;
+import com.alibaba.excel.metadata.GlobalConfiguration;
+import com.alibaba.excel.metadata.data.ReadCellData;
+import com.alibaba.excel.metadata.data.WriteCellData;
+import com.alibaba.excel.metadata.property.ExcelContentProperty;
+
+import java.math.BigInteger;
+
+/**
+ * BigInteger 大数值转换
+ * 与 {@link ExcelBigNumberConvert} 规则一致，15位以内输出数值，否则输出字符串
+ *
+ * @author JoSuper
+ */
+public class ExcelBigIntegerConvert implements Converter<BigInteger> {
+
+    @Override
+    public Class<BigInteger> supportJavaTypeKey() {
+        return BigInteger.class;
+    }
+
+    @Override
+    public CellDataTypeEnum supportExcelTypeKey() {
+        return CellDataTypeEnum.STRING;
+    }
+
+    @Override
+    public BigInteger convertToJavaData(ReadCellData<?> cellData, ExcelContentProperty contentProperty, GlobalConfiguration globalConfiguration) {
+        if (cellData.getType() == CellDataTypeEnum.NUMBER && cellData.getNumberValue() != null) {
+            return cellData.getNumberValue().toBigInteger();
+        }
+        Object data = cellData.getType() == CellDataTypeEnum.STRING ? cellData.getStringValue() : cellData.getData();
+        if (data instanceof String) {
+            String str = ((String) data).trim();
+            if (str.isEmpty()) {
+                return null;
+            }
+            if (ExcelBigNumberConvert.isDigits(str)) {
+                return new BigInteger(str);
+            }
+            return Convert.toBigInteger(str);
+        }
+        return Convert.toBigInteger(data);
+    }
+
+    @Override
+    public WriteCellData<Object> convertToExcelData(BigInteger object, ExcelContentProperty contentProperty, GlobalConfiguration globalConfiguration) {
+        if (object == null) {
+            return new WriteCellData<>(CellDataTypeEnum.EMPTY);
+        }
+        if (object.bitLength() < Long.SIZE) {
+            return ExcelBigNumberConvert.toCellData(object.longValue());
+        }
+        return new WriteCellData<>(object.toString());
+    }
+
+}
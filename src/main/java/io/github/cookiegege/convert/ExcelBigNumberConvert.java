@@ -1,7 +1,6 @@
 package io.github.cookiegege.convert;
 
 import cn.hutool.core.convert.Convert;
-import cn.hutool.core.util.ObjectUtil;
 import com.alibaba.excel.converters.Converter;
 import com.alibaba.excel.enums.CellDataTypeEnum;
 import com.alibaba.excel.metadata.GlobalConfiguration;
@@ -15,12 +14,23 @@ import java.math.BigDecimal;
 /**
  * 大数值转换
  * Excel 数值长度位15位 大于15位的数值转换位字符串
+ * 按数值范围判断，不再格式化成字符串，15位以内直接输出数值单元格
  *
  * @author Lion Li
  */
 @Slf4j
 public class ExcelBigNumberConvert implements Converter<Long> {
 
+    /**
+     * 可以作为数值输出的最大值(15位)
+     */
+    public static final long MAX_NUMBER = 999_999_999_999_999L;
+
+    /**
+     * 可以作为数值输出的最小值，与原来按字符串长度判断一致，负号也算一位
+     */
+    public static final long MIN_NUMBER = -99_999_999_999_999L;
+
     @Override
     public Class<Long> supportJavaTypeKey() {
         return Long.class;
@@ -33,20 +43,83 @@ public class ExcelBigNumberConvert implements Converter<Long> {
 
     @Override
     public Long convertToJavaData(ReadCellData<?> cellData, ExcelContentProperty contentProperty, GlobalConfiguration globalConfiguration) {
-        return Convert.toLong(cellData.getData());
+        if (cellData.getType() == CellDataTypeEnum.NUMBER && cellData.getNumberValue() != null) {
+            return cellData.getNumberValue().longValue();
+        }
+        Object data = cellData.getType() == CellDataTypeEnum.STRING ? cellData.getStringValue() : cellData.getData();
+        if (data instanceof String) {
+            return parseLong((String) data);
+        }
+        return Convert.toLong(data);
     }
 
     @Override
     public WriteCellData<Object> convertToExcelData(Long object, ExcelContentProperty contentProperty, GlobalConfiguration globalConfiguration) {
-        if (ObjectUtil.isNotNull(object)) {
-            String str = Convert.toStr(object);
-            if (str.length() > 15) {
-                return new WriteCellData<>(str);
+        if (object == null) {
+            return new WriteCellData<>(CellDataTypeEnum.EMPTY);
+        }
+        return toCellData(object);
+    }
+
+    /**
+     * 是否可以作为数值输出
+     *
+     * @param value 数值
+     * @return 15位以内返回 true
+     */
+    public static boolean isSafeNumber(long value) {
+        return value >= MIN_NUMBER && value <= MAX_NUMBER;
+    }
+
+    /**
+     * 转换单个数值，15位以内为数值单元格，否则为字符串单元格
+     *
+     * @param value 数值
+     * @return 单元格数据
+     */
+    public static WriteCellData<Object> toCellData(long value) {
+        if (isSafeNumber(value)) {
+            return new WriteCellData<>(BigDecimal.valueOf(value));
+        }
+        return new WriteCellData<>(Long.toString(value));
+    }
+
+    /**
+     * 解析字符串，常见的纯数字直接解析，其他格式(如科学计数法、千分位)交给 Convert 处理
+     *
+     * @param value 字符串
+     * @return 数值，空字符串或无法解析时返回 null
+     */
+    static Long parseLong(String value) {
+        String str = value.trim();
+        if (str.isEmpty()) {
+            return null;
+        }
+        if (isDigits(str)) {
+            try {
+                return Long.parseLong(str);
+            } catch (NumberFormatException e) {
+                // 超出 long 范围，交给 Convert
+            }
+        }
+        return Convert.toLong(str);
+    }
+
+    /**
+     * 是否为可选负号加纯数字
+     */
+    static boolean isDigits(String str) {
+        int start = str.charAt(0) == '-' || str.charAt(0) == '+' ? 1 : 0;
+        if (start == str.length()) {
+            return false;
+        }
+        for (int i = start; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
             }
         }
-        WriteCellData<Object> cellData = new WriteCellData<>(new BigDecimal(object));
-        cellData.setType(CellDataTypeEnum.NUMBER);
-        return cellData;
+        return true;
     }
 
 }
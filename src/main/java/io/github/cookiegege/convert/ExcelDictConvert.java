@@ -0,0 +1,87 @@
+package io.github.cookiegege.convert;
+
+import cn.hutool.core.annotation.AnnotationUtil;
+import cn.hutool.core.convert.Convert;
+import cn.hutool.core.util.ObjectUtil;
+import com.alibaba.excel.converters.Converter;
+import com.alibaba.excel.enums.CellDataTypeEnum;
+import com.alibaba.excel.metadata.GlobalConfiguration;
+import com.alibaba.excel.metadata.data.ReadCellData;
+import com.alibaba.excel.metadata.data.WriteCellData;
+import com.alibaba.excel.metadata.property.ExcelContentProperty;
+import io.github.cookiegege.annotation.ExcelDictFormat;
+import io.github.cookiegege.exception.ExcelException;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 字典格式化转换处理
+ * 字段需要同时标注 {@link ExcelDictFormat}，表达式编译结果和分隔符按字段缓存，每个单元格只查一次缓存
+ *
+ * @author JoSuper
+ */
+public class ExcelDictConvert implements Converter<Object> {
+
+    private static final Map<Field, FieldDictionary> DICTIONARIES = new ConcurrentHashMap<>();
+
+    @Override
+    public Class<Object> supportJavaTypeKey() {
+        return Object.class;
+    }
+
+    @Override
+    public CellDataTypeEnum supportExcelTypeKey() {
+        return null;
+    }
+
+    @Override
+    public Object convertToJavaData(ReadCellData<?> cellData, ExcelContentProperty contentProperty, GlobalConfiguration globalConfiguration) {
+        Object label = cellData.getType() == CellDataTypeEnum.STRING ? cellData.getStringValue() : cellData.getData();
+        if (ObjectUtil.isNull(label)) {
+            return null;
+        }
+        Field field = contentProperty.getField();
+        FieldDictionary dictionary = getDictionary(field);
+        String value = dictionary.dictionary.reverse(Convert.toStr(label), dictionary.separator);
+        return Convert.convert(field.getType(), value);
+    }
+
+    @Override
+    public WriteCellData<String> convertToExcelData(Object object, ExcelContentProperty contentProperty, GlobalConfiguration globalConfiguration) {
+        if (ObjectUtil.isNull(object)) {
+            return new WriteCellData<>("");
+        }
+        FieldDictionary dictionary = getDictionary(contentProperty.getField());
+        String label = dictionary.dictionary.convert(Convert.toStr(object), dictionary.separator);
+        return new WriteCellData<>(label);
+    }
+
+    private FieldDictionary getDictionary(Field field) {
+        return DICTIONARIES.computeIfAbsent(field, key -> new FieldDictionary(getAnnotation(key)));
+    }
+
+    private ExcelDictFormat getAnnotation(Field field) {
+        ExcelDictFormat anno = AnnotationUtil.getAnnotation(field, ExcelDictFormat.class);
+        if (anno == null) {
+            throw new ExcelException("字段{}缺少@ExcelDictFormat注解", field.getName());
+        }
+        return anno;
+    }
+
+    /**
+     * 字段的字典和分隔符
+     */
+    private static class FieldDictionary {
+
+        private final ExpDictionary dictionary;
+
+        private final String separator;
+
+        FieldDictionary(ExcelDictFormat anno) {
+            this.dictionary = ExpDictionary.of(anno.readConverterExp());
+            this.separator = anno.separator();
+        }
+    }
+}
@@ -11,20 +11,26 @@ import com.alibaba.excel.metadata.data.ReadCellData;
 import com.alibaba.excel.metadata.data.WriteCellData;
 import com.alibaba.excel.metadata.property.ExcelContentProperty;
 import io.github.cookiegege.annotation.ExcelEnumFormat;
+import io.github.cookiegege.exception.ExcelException;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.Field;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 枚举格式化转换处理
+ * 枚举的 code/text 映射按字段构建一次并缓存，构建后不再修改，可在并发导出中共享
  *
  * @author Liang
  */
 @Slf4j
 public class ExcelEnumConvert implements Converter<Object> {
 
+    private static final Map<Field, EnumMapping> MAPPINGS = new ConcurrentHashMap<>();
+
     @Override
     public Class<Object> supportJavaTypeKey() {
         return Object.class;
@@ -37,14 +43,19 @@ public class ExcelEnumConvert implements Converter<Object> {
 
     @Override
     public Object convertToJavaData(ReadCellData<?> cellData, ExcelContentProperty contentProperty, GlobalConfiguration globalConfiguration) {
-        Object codeValue = cellData.getData();
+        Object data = cellData.getType() == CellDataTypeEnum.STRING ? cellData.getStringValue() : cellData.getData();
         // 如果是空值
-        if (ObjectUtil.isNull(codeValue)) {
+        if (ObjectUtil.isNull(data)) {
             return null;
         }
-        Map<Object, String> enumValueMap = beforeConvert(contentProperty);
-        String textValue = enumValueMap.get(codeValue);
-        return Convert.convert(contentProperty.getField().getType(), textValue);
+        Field field = contentProperty.getField();
+        String textValue = data instanceof String ? (String) data : Convert.toStr(data);
+        Object codeValue = getMapping(field).codeByText.get(textValue);
+        // code 类型与字段类型一致时直接返回
+        if (codeValue == null || field.getType().isInstance(codeValue)) {
+            return codeValue;
+        }
+        return Convert.convert(field.getType(), codeValue);
     }
 
     @Override
@@ -52,24 +63,45 @@ public class ExcelEnumConvert implements Converter<Object> {
         if (ObjectUtil.isNull(object)) {
             return new WriteCellData<>("");
         }
-        Map<Object, String> enumValueMap = beforeConvert(contentProperty);
-        String value = Convert.toStr(enumValueMap.get(object), "");
-        return new WriteCellData<>(value);
+        String value = getMapping(contentProperty.getField()).textByCode.get(object);
+        return new WriteCellData<>(value == null ? "" : value);
     }
 
-    private Map<Object, String> beforeConvert(ExcelContentProperty contentProperty) {
-        ExcelEnumFormat anno = getAnnotation(contentProperty.getField());
-        Map<Object, String> enumValueMap = new HashMap<>();
-        Enum<?>[] enumConstants = anno.enumClass().getEnumConstants();
-        for (Enum<?> enumConstant : enumConstants) {
-            Object codeValue = ReflectUtil.getFieldValue(enumConstant, anno.codeField());
-            String textValue = (String) ReflectUtil.getFieldValue(enumConstant, anno.codeField());
-            enumValueMap.put(codeValue, textValue);
-        }
-        return enumValueMap;
+    private EnumMapping getMapping(Field field) {
+        return MAPPINGS.computeIfAbsent(field, key -> new EnumMapping(getAnnotation(key)));
     }
 
     private ExcelEnumFormat getAnnotation(Field field) {
-        return AnnotationUtil.getAnnotation(field, ExcelEnumFormat.class);
+        ExcelEnumFormat anno = AnnotationUtil.getAnnotation(field, ExcelEnumFormat.class);
+        if (anno == null) {
+            throw new ExcelException("字段{}缺少@ExcelEnumFormat注解", field.getName());
+        }
+        return anno;
+    }
+
+    /**
+     * 枚举 code 与 text 的双向映射，code 或 text 重复时保留第一个
+     */
+    private static class EnumMapping {
+
+        private final Map<Object, String> textByCode;
+
+        private final Map<String, Object> codeByText;
+
+        EnumMapping(ExcelEnumFormat anno) {
+            Enum<?>[] enumConstants = anno.enumClass().getEnumConstants();
+            Map<Object, String> texts = new HashMap<>(enumConstants.length * 2);
+            Map<String, Object> codes = new HashMap<>(enumConstants.length * 2);
+            for (Enum<?> enumConstant : enumConstants) {
+                Object codeValue = ReflectUtil.getFieldValue(enumConstant, anno.codeField());
+                String textValue = Convert.toStr(ReflectUtil.getFieldValue(enumConstant, anno.textField()));
+                texts.putIfAbsent(codeValue, textValue);
+                if (textValue != null) {
+                    codes.putIfAbsent(textValue, codeValue);
+                }
+            }
+            this.textByCode = Collections.unmodifiableMap(texts);
+            this.codeByText = Collections.unmodifiableMap(codes);
+        }
     }
 }
@@ -0,0 +1,87 @@
+package io.github.cookiegege.convert;
+
+import com.alibaba.excel.converters.Converter;
+import com.alibaba.excel.enums.CellDataTypeEnum;
+import com.alibaba.excel.metadata.GlobalConfiguration;
+import com.alibaba.excel.metadata.data.ReadCellData;
+import com.alibaba.excel.metadata.data.WriteCellData;
+import com.alibaba.excel.metadata.property.ExcelContentProperty;
+import io.github.cookiegege.exception.ExcelException;
+
+import java.util.Arrays;
+
+/**
+ * long[] 转换
+ * 单个值按 {@link ExcelBigNumberConvert} 规则输出，多个值用逗号连接成字符串，读取时逐段解析，不装箱
+ *
+ * @author JoSuper
+ */
+public class ExcelLongArrayConvert implements Converter<long[]> {
+
+    private static final char SEPARATOR = ',';
+
+    private static final long[] EMPTY = new long[0];
+
+    @Override
+    public Class<long[]> supportJavaTypeKey() {
+        return long[].class;
+    }
+
+    @Override
+    public CellDataTypeEnum supportExcelTypeKey() {
+        return CellDataTypeEnum.STRING;
+    }
+
+    @Override
+    public long[] convertToJavaData(ReadCellData<?> cellData, ExcelContentProperty contentProperty, GlobalConfiguration globalConfiguration) {
+        if (cellData.getType() == CellDataTypeEnum.NUMBER && cellData.getNumberValue() != null) {
+            return new long[]{cellData.getNumberValue().longValue()};
+        }
+        String str = cellData.getType() == CellDataTypeEnum.STRING ? cellData.getStringValue() : null;
+        if (str == null) {
+            return null;
+        }
+        long[] values = new long[8];
+        int size = 0;
+        int start = 0;
+        int length = str.length();
+        while (start <= length) {
+            int end = str.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                end = length;
+            }
+            String item = str.substring(start, end).trim();
+            if (!item.isEmpty()) {
+                Long value = ExcelBigNumberConvert.parseLong(item);
+                if (value == null) {
+                    throw new ExcelException("无法转换为数值：{}", item);
+                }
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                values[size++] = value;
+            }
+            start = end + 1;
+        }
+        return size == 0 ? EMPTY : Arrays.copyOf(values, size);
+    }
+
+    @Override
+    public WriteCellData<Object> convertToExcelData(long[] object, ExcelContentProperty contentProperty, GlobalConfiguration globalConfiguration) {
+        if (object == null || object.length == 0) {
+            return new WriteCellData<>(CellDataTypeEnum.EMPTY);
+        }
+        if (object.length == 1) {
+            return ExcelBigNumberConvert.toCellData(object[0]);
+        }
+        StringBuilder builder = new StringBuilder(object.length * 8);
+        for (int i = 0; i < object.length; i++) {
+            if (i > 0) {
+                builder.append(SEPARATOR);
+            }
+            builder.append(object[i]);
+        }
+        return new WriteCellData<>(builder.toString());
+    }
+
+}
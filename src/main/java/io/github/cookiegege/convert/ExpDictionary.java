@@ -0,0 +1,173 @@
+package io.github.cookiegege.convert;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import cn.hutool.core.util.StrUtil;
+import io.github.cookiegege.exception.ExcelException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+
+/**
+ * 编译后的字典表达式，如 0=男,1=女,2=未知
+ * 表达式只解析一次并按表达式缓存(LRU)，翻译时直接查表，多值单元格按分隔符逐段切分，不使用正则
+ * <p>
+ * 翻译规则与原有实现一致：单值时返回第一个匹配项；多值时按字典中的顺序输出匹配项并用分隔符连接，未匹配的值忽略
+ *
+ * @author JoSuper
+ */
+public final class ExpDictionary {
+
+    /**
+     * 缓存的表达式数量上限
+     */
+    private static final int CACHE_CAPACITY = 256;
+
+    private static final LRUCache<String, ExpDictionary> CACHE = CacheUtil.newLRUCache(CACHE_CAPACITY);
+
+    private final String[] keys;
+
+    private final String[] labels;
+
+    /**
+     * 值 -> 第一个匹配项的下标
+     */
+    private final Map<String, Integer> keyIndex;
+
+    private final Map<String, Integer> labelIndex;
+
+    /**
+     * 值 -> 所有匹配项的下标，只有值重复时才有多个
+     */
+    private final Map<String, int[]> keyIndexes;
+
+    private final Map<String, int[]> labelIndexes;
+
+    private ExpDictionary(String converterExp) {
+        List<String> keyList = new ArrayList<>();
+        List<String> labelList = new ArrayList<>();
+        int start = 0;
+        int length = converterExp.length();
+        while (start <= length) {
+            int end = converterExp.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                String item = converterExp.substring(start, end);
+                int eq = item.indexOf('=');
+                if (eq < 0) {
+                    throw new ExcelException("字典表达式格式错误：{}", converterExp);
+                }
+                // 与 split("=") 取第二段一致
+                int next = item.indexOf('=', eq + 1);
+                keyList.add(item.substring(0, eq));
+                labelList.add(item.substring(eq + 1, next < 0 ? item.length() : next));
+            }
+            start = end + 1;
+        }
+        this.keys = keyList.toArray(new String[0]);
+        this.labels = labelList.toArray(new String[0]);
+        this.keyIndex = firstIndex(keys);
+        this.labelIndex = firstIndex(labels);
+        this.keyIndexes = allIndexes(keys);
+        this.labelIndexes = allIndexes(labels);
+    }
+
+    /**
+     * 获取编译后的字典，相同表达式复用
+     *
+     * @param converterExp 字典表达式
+     * @return 字典
+     */
+    public static ExpDictionary of(String converterExp) {
+        if (converterExp == null) {
+            throw new ExcelException("字典表达式不能为空");
+        }
+        return CACHE.get(converterExp, () -> new ExpDictionary(converterExp));
+    }
+
+    /**
+     * 翻译导出值 0 -> 男
+     *
+     * @param value     参数值
+     * @param separator 多值分隔符
+     * @return 翻译后的值，未匹配时返回空字符串
+     */
+    public String convert(String value, String separator) {
+        return translate(value, separator, keyIndex, keyIndexes, labels);
+    }
+
+    /**
+     * 反向翻译导入值 男 -> 0
+     *
+     * @param value     参数值
+     * @param separator 多值分隔符
+     * @return 翻译后的值，未匹配时返回空字符串
+     */
+    public String reverse(String value, String separator) {
+        return translate(value, separator, labelIndex, labelIndexes, keys);
+    }
+
+    /**
+     * 字典项数量
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    private String translate(String value, String separator, Map<String, Integer> index, Map<String, int[]> indexes, String[] targets) {
+        if (value == null) {
+            return StrUtil.EMPTY;
+        }
+        if (StrUtil.isEmpty(separator) || !value.contains(separator)) {
+            Integer i = index.get(value);
+            return i == null ? StrUtil.EMPTY : targets[i];
+        }
+        // 多值：收集匹配的字典项，按字典顺序输出
+        BitSet matched = new BitSet(targets.length);
+        int start = 0;
+        int length = value.length();
+        while (start < length) {
+            int end = value.indexOf(separator, start);
+            if (end < 0) {
+                end = length;
+            }
+            int[] items = indexes.get(value.substring(start, end));
+            if (items != null) {
+                for (int item : items) {
+                    matched.set(item);
+                }
+            }
+            start = end + separator.length();
+        }
+        StringBuilder builder = new StringBuilder();
+        for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+            builder.append(targets[i]).append(separator);
+        }
+        return StringUtils.stripEnd(builder.toString(), separator);
+    }
+
+    private static Map<String, Integer> firstIndex(String[] values) {
+        Map<String, Integer> map = new HashMap<>(values.length * 2);
+        for (int i = 0; i < values.length; i++) {
+            map.putIfAbsent(values[i], i);
+        }
+        return map;
+    }
+
+    private static Map<String, int[]> allIndexes(String[] values) {
+        Map<String, int[]> map = new HashMap<>(values.length * 2);
+        for (int i = 0; i < values.length; i++) {
+            int[] old = map.get(values[i]);
+            if (old == null) {
+                map.put(values[i], new int[]{i});
+            } else {
+                int[] items = Arrays.copyOf(old, old.length + 1);
+                items[old.length] = i;
+                map.put(values[i], items);
+            }
+        }
+        return map;
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.cookiegege.excel;
+
+import com.alibaba.excel.context.AnalysisContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Excel 分批导入监听
+ * 解析到的数据按批次交给消费者处理，不在内存中保留全部数据
+ *
+ * @author JoSuper
+ */
+@Slf4j
+public class BatchExcelListener<T> extends DefaultExcelListener<T> {
+
+    /**
+     * 每批数据条数
+     */
+    private final int batchSize;
+
+    /**
+     * 批次消费者
+     */
+    private final Consumer<List<T>> consumer;
+
+    /**
+     * 导入回执，只记录计数和错误信息
+     */
+    private final BatchExcelResult<T> batchResult;
+
+    /**
+     * 当前批次缓冲
+     */
+    private List<T> buffer;
+
+    public BatchExcelListener(int batchSize, Consumer<List<T>> consumer) {
+        this(true, batchSize, consumer);
+    }
+
+    public BatchExcelListener(boolean isValidate, int batchSize, Consumer<List<T>> consumer) {
+        this(isValidate, batchSize, consumer, ImportErrorPolicy.failFast());
+    }
+
+    /**
+     * @param isValidate  是否 Validator 检验
+     * @param batchSize   每批条数
+     * @param consumer    批次消费者
+     * @param errorPolicy 错误处理策略
+     */
+    public BatchExcelListener(boolean isValidate, int batchSize, Consumer<List<T>> consumer, ImportErrorPolicy errorPolicy) {
+        this(isValidate, batchSize, consumer, new BatchExcelResult<>(errorPolicy), errorPolicy);
+    }
+
+    /**
+     * 并行校验，校验通过的数据仍按行号顺序分批交给消费者，记录全部错误
+     *
+     * @param validateExecutor 校验线程池
+     * @param batchSize        每批条数，同时作为校验批次大小
+     * @param consumer         批次消费者
+     */
+    public BatchExcelListener(Executor validateExecutor, int batchSize, Consumer<List<T>> consumer) {
+        this(validateExecutor, batchSize, consumer, ImportErrorPolicy.collectAll());
+    }
+
+    /**
+     * 并行校验，校验通过的数据仍按行号顺序分批交给消费者
+     *
+     * @param validateExecutor 校验线程池
+     * @param batchSize        每批条数，同时作为校验批次大小
+     * @param consumer         批次消费者
+     * @param errorPolicy      错误处理策略
+     */
+    public BatchExcelListener(Executor validateExecutor, int batchSize, Consumer<List<T>> consumer, ImportErrorPolicy errorPolicy) {
+        this(true, batchSize, consumer, new BatchExcelResult<>(errorPolicy), errorPolicy);
+        setValidateExecutor(validateExecutor, batchSize);
+    }
+
+    private BatchExcelListener(boolean isValidate, int batchSize, Consumer<List<T>> consumer, BatchExcelResult<T> batchResult,
+                               ImportErrorPolicy errorPolicy) {
+        super(isValidate, batchResult, errorPolicy);
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("批次大小必须大于0");
+        }
+        if (consumer == null) {
+            throw new IllegalArgumentException("批次消费者不能为空");
+        }
+        this.batchSize = batchSize;
+        this.consumer = consumer;
+        this.batchResult = batchResult;
+        this.buffer = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    protected void collect(T data, AnalysisContext context) {
+        buffer.add(data);
+        if (buffer.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void doAfterAllAnalysed(AnalysisContext context) {
+        awaitValidation(context);
+        flush();
+        super.doAfterAllAnalysed(context);
+    }
+
+    /**
+     * 将当前批次交给消费者，消费者可以持有该批次，之后会使用新的缓冲
+     */
+    private void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        List<T> batch = buffer;
+        buffer = new ArrayList<>(batchSize);
+        getOperation().bufferedRows(batch.size());
+        consumer.accept(batch);
+        batchResult.addBatch(batch.size());
+        log.debug("第{}批数据处理完成，共{}条", batchResult.getBatchCount(), batch.size());
+    }
+
+    @Override
+    public ExcelResult<T> getExcelResult() {
+        return batchResult;
+    }
+
+}
@@ -0,0 +1,94 @@
+package io.github.cookiegege.excel;
+
+import cn.hutool.core.util.StrUtil;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 分批导入返回对象
+ * 数据已经按批次交给消费者，这里只保留计数和错误信息
+ *
+ * @author JoSuper
+ */
+public class BatchExcelResult<T> implements ExcelResult<T> {
+
+    /**
+     * 成功处理的数据条数
+     */
+    @Getter
+    private long successCount;
+
+    /**
+     * 已处理的批次数
+     */
+    @Getter
+    private int batchCount;
+
+    /**
+     * 结构化的导入错误
+     */
+    private final ImportErrorCollector errors;
+
+    public BatchExcelResult() {
+        this(ImportErrorPolicy.failFast());
+    }
+
+    public BatchExcelResult(ImportErrorPolicy errorPolicy) {
+        this.errors = new ImportErrorCollector(errorPolicy);
+    }
+
+    /**
+     * 记录一个已处理的批次
+     *
+     * @param size 批次条数
+     */
+    void addBatch(int size) {
+        this.successCount += size;
+        this.batchCount++;
+    }
+
+    /**
+     * 分批导入不保留数据，始终返回空列表
+     */
+    @Override
+    public List<T> getList() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * 格式化后的错误信息，每次调用重新生成，不能修改，记录错误使用 {@link #addError(ImportError)}
+     */
+    @Override
+    public List<String> getErrorList() {
+        return Collections.unmodifiableList(errors.format());
+    }
+
+    @Override
+    public boolean addError(ImportError error) {
+        return errors.add(error);
+    }
+
+    @Override
+    public List<ImportError> getErrors() {
+        return errors.getErrors();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.getErrorCount();
+    }
+
+    @Override
+    public String getAnalysis() {
+        long errorCount = errors.getErrorCount();
+        if (errorCount == 0) {
+            if (successCount == 0) {
+                return "读取失败，未解析到数据";
+            }
+            return StrUtil.format("恭喜您，全部读取成功！共{}条，分{}批处理", successCount, batchCount);
+        }
+        return ImportErrorCollector.report(successCount, errorCount, errors.format());
+    }
+}
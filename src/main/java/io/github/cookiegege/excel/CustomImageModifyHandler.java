@@ -7,16 +7,20 @@ import com.alibaba.excel.metadata.data.WriteCellData;
 import com.alibaba.excel.write.handler.CellWriteHandler;
 import com.alibaba.excel.write.metadata.holder.WriteSheetHolder;
 import com.alibaba.excel.write.metadata.holder.WriteTableHolder;
+import io.github.cookiegege.metrics.ExcelMetrics;
+import io.github.cookiegege.metrics.ExcelOperation;
+import io.github.cookiegege.util.ImageUtils;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.util.Units;
 import org.apache.poi.xssf.usermodel.XSSFDrawing;
-import org.apache.poi.xssf.usermodel.XSSFPicture;
-import org.apache.poi.xssf.usermodel.XSSFShape;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTTransform2D;
+import org.openxmlformats.schemas.drawingml.x2006.spreadsheetDrawing.CTMarker;
+import org.openxmlformats.schemas.drawingml.x2006.spreadsheetDrawing.CTTwoCellAnchor;
 
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -26,18 +30,62 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class CustomImageModifyHandler implements CellWriteHandler {
     /**
-     * 已经处理的Cell
+     * 已经处理的Cell，行号在高32位，列号在低32位
      */
-    private final CopyOnWriteArrayList<String> REPEATS = new CopyOnWriteArrayList<>();
+    private final LongHashSet REPEATS = new LongHashSet();
     /**
      * 单元格的图片最大张数（每列的单元格图片张数不确定，单元格宽度需按照张数最多的长度来设置）
      */
     private final AtomicReference<Integer> MAX_IMAGE_SIZE = new AtomicReference<>(0);
 
     /**
-     * 标记手动添加的图片，用于排除EasyExcel自动添加的图片
+     * 加载只记录来源的图片 {@link ImageSourceData}，为空时第一次用到时使用默认配置
      */
-    private final CopyOnWriteArrayList<Integer> CREATE_PIC_INDEX = new CopyOnWriteArrayList<>();
+    private ImagePipeline pipeline;
+
+    /**
+     * 工作簿的图片登记表，同一次导出的多个sheet可以共用
+     */
+    private final PictureRegistry pictureRegistry;
+
+    /**
+     * 转换后交给本处理器插入图片的单元格数据和它的图片
+     */
+    private WriteCellData<?> pendingCellData;
+
+    private List<ImageData> pendingImages;
+
+    /**
+     * 已经检查过形状的画布
+     */
+    private XSSFDrawing scannedDrawing;
+
+    /**
+     * 画布中最后一个已经检查过的形状，之后追加的形状都是新的
+     */
+    private XmlObject scannedShape;
+
+    public CustomImageModifyHandler() {
+        this(null, new PictureRegistry());
+    }
+
+    /**
+     * @param pipeline 写出单元格时加载 {@link ImageSourceData} 使用的图片预处理配置
+     */
+    public CustomImageModifyHandler(ImagePipeline pipeline) {
+        this(pipeline, new PictureRegistry());
+    }
+
+    /**
+     * 多个sheet写入同一个工作簿时传入同一份登记表，相同图片在整个工作簿中只保存一份
+     *
+     * @param pipeline        写出单元格时加载 {@link ImageSourceData} 使用的图片预处理配置 可以为空
+     * @param pictureRegistry 图片登记表
+     */
+    public CustomImageModifyHandler(ImagePipeline pipeline, PictureRegistry pictureRegistry) {
+        this.pipeline = pipeline;
+        this.pictureRegistry = pictureRegistry;
+    }
 
     @Override
     public void beforeCellCreate(WriteSheetHolder writeSheetHolder, WriteTableHolder writeTableHolder, Row row, Head head, Integer columnIndex, Integer relativeRowIndex, Boolean isHead) {
@@ -58,6 +106,10 @@ public class CustomImageModifyHandler implements CellWriteHandler {
         //将要插入图片的单元格的type设置为空,下面再填充图片
         if (CollectionUtils.isNotEmpty(cellData.getImageDataList())) {
             cellData.setType(CellDataTypeEnum.EMPTY);
+            // 先取走图片，EasyExcel就不会再写入一份没有格式的图片，写完后再放回
+            pendingCellData = cellData;
+            pendingImages = cellData.getImageDataList();
+            cellData.setImageDataList(null);
         }
     }
 
@@ -70,18 +122,26 @@ public class CustomImageModifyHandler implements CellWriteHandler {
         boolean listFlag = false;
         Sheet sheet = cell.getSheet();
         // 此处为ExcelUrlConverterUtil的返回值
-        List<ImageData> imageDataList = cellDataList.get(0).getImageDataList();
+        WriteCellData<?> cellData = cellDataList.get(0);
+        List<ImageData> imageDataList = cellData.getImageDataList();
+        if (cellData == pendingCellData) {
+            imageDataList = pendingImages;
+            cellData.setImageDataList(imageDataList);
+            pendingCellData = null;
+            pendingImages = null;
+        }
         if (CollectionUtils.isNotEmpty(imageDataList)) {
             listFlag = true;
         }
         if (!listFlag && imageDataList == null) {
             return;
         }
-        String key = cell.getRowIndex() + "_" + cell.getColumnIndex();
-        if (REPEATS.contains(key)) {
+        long key = ((long) cell.getRowIndex() << 32) | cell.getColumnIndex();
+        if (!REPEATS.add(key)) {
             return;
         }
-        REPEATS.add(key);
+        ExcelOperation operation = ExcelOperation.current();
+        long start = operation.startStage();
         if (imageDataList.size() > MAX_IMAGE_SIZE.get()) {
             MAX_IMAGE_SIZE.set(imageDataList.size());
         }
@@ -89,6 +149,8 @@ public class CustomImageModifyHandler implements CellWriteHandler {
         sheet.getRow(cell.getRowIndex()).setHeight((short) 900);
         sheet.setColumnWidth(cell.getColumnIndex(), listFlag ? 240 * 8 * MAX_IMAGE_SIZE.get() : 240 * 8);
 
+        // 清除EasyExcel自动添加的没有格式的图片
+        clearAutoPictures((XSSFDrawing) sheet.getDrawingPatriarch());
         if (listFlag) {
             for (int i = 0; i < imageDataList.size(); i++) {
                 ImageData imageData = imageDataList.get(i);
@@ -96,22 +158,88 @@ public class CustomImageModifyHandler implements CellWriteHandler {
                     continue;
                 }
                 byte[] image = imageData.getImage();
+                if (image == null && imageData instanceof ImageSourceData) {
+                    // 延迟加载的图片插入后不再持有
+                    image = getPipeline().load(imageData);
+                }
+                if (image == null) {
+                    continue;
+                }
                 this.insertImage(sheet, cell, image, i);
             }
         } else {
             this.insertImage(sheet, cell, imageDataList.get(0).getImage(), 0);
         }
+        markScanned((XSSFDrawing) sheet.getDrawingPatriarch());
+        operation.endStage(ExcelMetrics.STAGE_IMAGE, start);
+    }
 
-        // 清除EasyExcel自动添加的没有格式的图片
-        XSSFDrawing drawingPatriarch = (XSSFDrawing) sheet.getDrawingPatriarch();
-        List<XSSFShape> shapes = drawingPatriarch.getShapes();
-        for (int i = 0; i < shapes.size(); i++) {
-            XSSFShape shape = shapes.get(i);
-            if (shape instanceof XSSFPicture && !CREATE_PIC_INDEX.contains(i)) {
-                CREATE_PIC_INDEX.add(i);
-                XSSFPicture picture = (XSSFPicture) shape;
-                picture.resize(0);
+    private ImagePipeline getPipeline() {
+        if (pipeline == null) {
+            pipeline = ImagePipeline.create();
+        }
+        return pipeline;
+    }
+
+    /**
+     * 把上次检查之后新增的图片缩成0大小，此时画布中新增的形状都不是本处理器插入的
+     * 形状总是追加在末尾，从最后一个往前找到上次检查的位置即可，不需要遍历整个画布
+     *
+     * @param drawing 画布
+     */
+    private void clearAutoPictures(XSSFDrawing drawing) {
+        if (drawing == null) {
+            return;
+        }
+        if (drawing != scannedDrawing) {
+            scannedDrawing = drawing;
+            scannedShape = null;
+        }
+        try (XmlCursor cursor = drawing.getCTDrawing().newCursor()) {
+            if (!cursor.toLastChild()) {
+                return;
             }
+            do {
+                XmlObject shape = cursor.getObject();
+                if (shape == scannedShape) {
+                    break;
+                }
+                if (shape instanceof CTTwoCellAnchor && ((CTTwoCellAnchor) shape).isSetPic()) {
+                    collapse((CTTwoCellAnchor) shape);
+                }
+            } while (cursor.toPrevSibling());
+        }
+    }
+
+    /**
+     * 记录画布中最后一个形状，本处理器插入的图片不再检查
+     *
+     * @param drawing 画布
+     */
+    private void markScanned(XSSFDrawing drawing) {
+        if (drawing == null) {
+            return;
+        }
+        scannedDrawing = drawing;
+        try (XmlCursor cursor = drawing.getCTDrawing().newCursor()) {
+            scannedShape = cursor.toLastChild() ? cursor.getObject() : null;
+        }
+    }
+
+    /**
+     * 与 XSSFPicture.resize(0) 效果相同，但不需要读取图片计算原始尺寸
+     */
+    private static void collapse(CTTwoCellAnchor anchor) {
+        CTMarker from = anchor.getFrom();
+        CTMarker to = anchor.getTo();
+        to.setCol(from.getCol());
+        to.setColOff(from.getColOff());
+        to.setRow(from.getRow());
+        to.setRowOff(from.getRowOff());
+        CTTransform2D xfrm = anchor.getPic().getSpPr().getXfrm();
+        if (xfrm != null && xfrm.getExt() != null) {
+            xfrm.getExt().setCx(0);
+            xfrm.getExt().setCy(0);
         }
     }
 
@@ -125,8 +253,8 @@ public class CustomImageModifyHandler implements CellWriteHandler {
      */
     private void insertImage(Sheet sheet, Cell cell, byte[] pictureData, int i) {
         int picWidth = Units.pixelToEMU(60);
-        int index = sheet.getWorkbook().addPicture(pictureData, HSSFWorkbook.PICTURE_TYPE_PNG);
-        CREATE_PIC_INDEX.add(index);
+        // 相同内容的图片只保存一份，按文件头识别真实格式
+        int index = pictureRegistry.addPicture(sheet.getWorkbook(), pictureData, ImageUtils.getPictureType(pictureData));
         Drawing<?> drawing = sheet.getDrawingPatriarch();
         if (drawing == null) {
             drawing = sheet.createDrawingPatriarch();
@@ -1,24 +1,41 @@
 package io.github.cookiegege.excel;
 
-import cn.hutool.core.util.StrUtil;
 import cn.hutool.json.JSONUtil;
 import com.alibaba.excel.context.AnalysisContext;
 import com.alibaba.excel.event.AnalysisEventListener;
 import com.alibaba.excel.exception.ExcelAnalysisException;
+import com.alibaba.excel.exception.ExcelAnalysisStopException;
 import com.alibaba.excel.exception.ExcelDataConvertException;
+import com.alibaba.excel.metadata.Head;
+import io.github.cookiegege.metrics.ExcelMetrics;
+import io.github.cookiegege.metrics.ExcelOperation;
 import io.github.cookiegege.util.CommonValidatorUtils;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Excel 导入监听
+ * <p>
+ * 单元格转换异常和校验异常按 {@link ImportErrorPolicy} 处理：默认遇到第一行错误即中断，
+ * 也可以记录前N条错误或抽样保留错误，错误以 {@link ImportError} 保存，读取时才格式化
+ * <p>
+ * 指定校验线程池后，解析到的数据按批次交给线程池并行校验，校验结果按行号顺序回到解析线程处理，默认记录全部错误
  *
  * @author Yjoioooo
  * @author Lion Li
@@ -27,6 +44,11 @@ import java.util.stream.Collectors;
 @NoArgsConstructor
 public class DefaultExcelListener<T> extends AnalysisEventListener<T> implements ExcelListener<T> {
 
+    /**
+     * 默认每批校验的数据条数
+     */
+    public static final int DEFAULT_VALIDATE_BATCH_SIZE = 500;
+
     /**
      * 是否Validator检验，默认为是
      */
@@ -42,9 +64,118 @@ public class DefaultExcelListener<T> extends AnalysisEventListener<T> implements
      */
     private ExcelResult<T> excelResult;
 
+    /**
+     * 错误处理策略
+     */
+    private ImportErrorPolicy errorPolicy = ImportErrorPolicy.failFast();
+
+    /**
+     * 已按策略停止解析
+     */
+    private boolean stopped;
+
+    /**
+     * 校验线程池，为空时在解析线程中校验
+     */
+    private Executor validateExecutor;
+
+    /**
+     * 每批校验的数据条数
+     */
+    private int validateBatchSize = DEFAULT_VALIDATE_BATCH_SIZE;
+
+    /**
+     * 同时在校验中的批次上限，超过时等待最早的批次完成
+     */
+    private int maxPendingBatches;
+
+    /**
+     * 当前待提交的批次
+     */
+    private List<RowEntry<T>> rowBuffer;
+
+    /**
+     * 已提交的批次，按提交顺序排列
+     */
+    private final ArrayDeque<CompletableFuture<List<RowEntry<T>>>> pendingBatches = new ArrayDeque<>();
+
+    /**
+     * 当前sheet字段名对应的列号
+     */
+    private Map<String, Integer> fieldColumns;
+
+    /**
+     * fieldColumns 对应的sheet
+     */
+    private Integer fieldColumnsSheetNo;
+
+    /**
+     * 当前导入的指标记录，第一次使用时在解析线程中获取
+     */
+    private ExcelOperation operation;
+
+    /**
+     * 导入进度统计，为空时不统计
+     */
+    private ImportProgressTracker progressTracker;
+
     public DefaultExcelListener(boolean isValidate) {
-        this.excelResult = new DefaultExcelResult<>();
+        this(isValidate, ImportErrorPolicy.failFast());
+    }
+
+    public DefaultExcelListener(boolean isValidate, ImportErrorPolicy errorPolicy) {
+        this(isValidate, new DefaultExcelResult<>(errorPolicy), errorPolicy);
+    }
+
+    /**
+     * 并行校验，记录全部错误
+     *
+     * @param validateExecutor  校验线程池
+     * @param validateBatchSize 每批校验的数据条数
+     */
+    public DefaultExcelListener(Executor validateExecutor, int validateBatchSize) {
+        this(validateExecutor, validateBatchSize, ImportErrorPolicy.collectAll());
+    }
+
+    /**
+     * 并行校验
+     *
+     * @param validateExecutor  校验线程池
+     * @param validateBatchSize 每批校验的数据条数
+     * @param errorPolicy       错误处理策略
+     */
+    public DefaultExcelListener(Executor validateExecutor, int validateBatchSize, ImportErrorPolicy errorPolicy) {
+        this(true, new DefaultExcelResult<>(errorPolicy), errorPolicy);
+        setValidateExecutor(validateExecutor, validateBatchSize);
+    }
+
+    protected DefaultExcelListener(boolean isValidate, ExcelResult<T> excelResult) {
+        this(isValidate, excelResult, ImportErrorPolicy.failFast());
+    }
+
+    protected DefaultExcelListener(boolean isValidate, ExcelResult<T> excelResult, ImportErrorPolicy errorPolicy) {
+        this.excelResult = excelResult;
         this.isValidate = isValidate;
+        this.errorPolicy = errorPolicy == null ? ImportErrorPolicy.failFast() : errorPolicy;
+    }
+
+    /**
+     * 设置校验线程池
+     *
+     * @param validateExecutor  校验线程池
+     * @param validateBatchSize 每批校验的数据条数
+     */
+    protected void setValidateExecutor(Executor validateExecutor, int validateBatchSize) {
+        if (validateExecutor == null) {
+            throw new IllegalArgumentException("校验线程池不能为空");
+        }
+        if (validateBatchSize <= 0) {
+            throw new IllegalArgumentException("批次大小必须大于0");
+        }
+        this.validateExecutor = validateExecutor;
+        this.validateBatchSize = validateBatchSize;
+        this.maxPendingBatches = Runtime.getRuntime().availableProcessors() * 2;
+        this.rowBuffer = new ArrayList<>(validateBatchSize);
     }
 
     /**
@@ -55,35 +186,41 @@ public class DefaultExcelListener<T> extends AnalysisEventListener<T> implements
      */
     @Override
     public void onException(Exception exception, AnalysisContext context) throws Exception {
-        String errMsg = null;
+        if (exception instanceof ExcelAnalysisException) {
+            // 按策略停止解析时抛出的异常
+            throw exception;
+        }
+        int rowIndex = context.readRowHolder().getRowIndex();
+        List<ImportError> errors;
         if (exception instanceof ExcelDataConvertException) {
             // 如果是某一个单元格的转换异常 能获取到具体行号
             ExcelDataConvertException excelDataConvertException = (ExcelDataConvertException) exception;
-            Integer rowIndex = excelDataConvertException.getRowIndex();
+            if (progressTracker != null) {
+                progressTracker.rowParsed(context);
+            }
             Integer columnIndex = excelDataConvertException.getColumnIndex();
-            errMsg = StrUtil.format("第{}行-第{}列-表头{}: 解析异常<br/>",
-                    rowIndex + 1, columnIndex + 1, headMap.get(columnIndex));
-            if (log.isDebugEnabled()) {
-                log.error(errMsg);
+            errors = Collections.singletonList(new ImportError(excelDataConvertException.getRowIndex(), columnIndex,
+                    headMap == null ? null : headMap.get(columnIndex), "解析异常", exception));
+        } else if (exception instanceof ConstraintViolationException) {
+            prepareFieldColumns(context);
+            errors = toErrors(rowIndex, ((ConstraintViolationException) exception).getConstraintViolations(), fieldColumns, headMap);
+        } else {
+            // 其他异常(如批次消费者抛出的异常)记录后直接中断
+            excelResult.addError(new ImportError(rowIndex, null, null, exception.getMessage(), exception));
+            if (progressTracker != null) {
+                progressTracker.addErrors(1);
             }
+            throw exception;
         }
-        if (exception instanceof ConstraintViolationException) {
-            ConstraintViolationException constraintViolationException = (ConstraintViolationException) exception;
-            Set<ConstraintViolation<?>> constraintViolations = constraintViolationException.getConstraintViolations();
-
-            String constraintViolationsMsg = "";
-            if (!constraintViolations.isEmpty()) {
-                constraintViolationsMsg = constraintViolations.stream()
-                        .map(ConstraintViolation::getMessage)
-                        .filter(Objects::nonNull).collect(Collectors.joining(","));
-            }
-            errMsg = StrUtil.format("第{}行数据校验异常: {}", context.readRowHolder().getRowIndex() + 1, constraintViolationsMsg);
-            if (log.isDebugEnabled()) {
-                log.error(errMsg);
-            }
+        if (log.isDebugEnabled()) {
+            errors.forEach(error -> log.error(error.format()));
+        }
+        if (validateExecutor != null) {
+            // 与校验结果一起按行号顺序记录
+            addRow(new RowEntry<>(rowIndex, null, errors), context);
+            return;
         }
-        excelResult.getErrorList().add(errMsg);
-        throw new ExcelAnalysisException(errMsg);
+        recordErrors(errors, context);
     }
 
     @Override
@@ -94,20 +231,264 @@ public class DefaultExcelListener<T> extends AnalysisEventListener<T> implements
 
     @Override
     public void invoke(T data, AnalysisContext context) {
+        if (progressTracker != null) {
+            progressTracker.rowParsed(context);
+        }
+        if (validateExecutor != null && isValidate) {
+            prepareFieldColumns(context);
+            addRow(new RowEntry<>(context.readRowHolder().getRowIndex(), data, null), context);
+            return;
+        }
         if (isValidate) {
-            CommonValidatorUtils.validate(data);
+            ExcelOperation current = getOperation();
+            long start = current.startStage();
+            try {
+                CommonValidatorUtils.validate(data);
+            } finally {
+                current.endStage(ExcelMetrics.STAGE_VALIDATE, start);
+                if (progressTracker != null) {
+                    progressTracker.rowsValidated(1);
+                }
+            }
         }
+        collect(data, context);
+    }
+
+    /**
+     * 收集校验通过的数据，默认放入导入回执
+     * 并行校验时在解析线程中按行号顺序调用
+     *
+     * @param data    行数据
+     * @param context Excel 上下文
+     */
+    protected void collect(T data, AnalysisContext context) {
         excelResult.getList().add(data);
     }
 
     @Override
     public void doAfterAllAnalysed(AnalysisContext context) {
+        awaitValidation(context);
         log.debug("所有数据解析完成！");
     }
 
+    /**
+     * 等待所有批次校验完成并处理结果
+     *
+     * @param context Excel 上下文
+     */
+    protected void awaitValidation(AnalysisContext context) {
+        if (validateExecutor == null || stopped) {
+            return;
+        }
+        submitBatch();
+        while (!pendingBatches.isEmpty()) {
+            drainHead(context);
+        }
+    }
+
+    /**
+     * 设置导入进度统计，需要在开始解析前设置
+     *
+     * @param progressTracker 进度统计
+     */
+    public void setProgressTracker(ImportProgressTracker progressTracker) {
+        this.progressTracker = progressTracker;
+    }
+
+    /**
+     * 当前导入的指标记录，只在解析线程中调用
+     *
+     * @return 指标记录，未启用时不做任何事情
+     */
+    protected ExcelOperation getOperation() {
+        if (operation == null) {
+            operation = ExcelOperation.current();
+        }
+        return operation;
+    }
+
     @Override
     public ExcelResult<T> getExcelResult() {
         return excelResult;
     }
 
+    /**
+     * 记录一行的错误，达到策略上限时停止解析
+     */
+    private void recordErrors(List<ImportError> errors, AnalysisContext context) {
+        if (progressTracker != null) {
+            progressTracker.addErrors(errors.size());
+        }
+        boolean stop = false;
+        for (ImportError error : errors) {
+            stop |= excelResult.addError(error);
+        }
+        if (!stop || errors.isEmpty()) {
+            return;
+        }
+        cancelPending();
+        if (errorPolicy.getMode() == ImportErrorPolicy.Mode.FAIL_FAST) {
+            ImportError error = errors.get(0);
+            throw new ExcelAnalysisException(error.format(), error.getCause());
+        }
+        // 已收集到足够的错误，结束解析，已解析的数据正常处理
+        log.debug("错误数量达到{}条，停止解析", errorPolicy.getLimit());
+        doAfterAllAnalysed(context);
+        stopped = true;
+        throw new ExcelAnalysisStopException();
+    }
+
+    private void cancelPending() {
+        pendingBatches.forEach(future -> future.cancel(true));
+        pendingBatches.clear();
+        if (rowBuffer != null) {
+            rowBuffer.clear();
+        }
+        stopped = true;
+    }
+
+    private void addRow(RowEntry<T> entry, AnalysisContext context) {
+        rowBuffer.add(entry);
+        if (rowBuffer.size() >= validateBatchSize) {
+            submitBatch();
+        }
+        // 处理已经完成的批次，未完成的批次太多时等待最早的批次，避免数据堆积
+        while (!pendingBatches.isEmpty() && (pendingBatches.peekFirst().isDone() || pendingBatches.size() > maxPendingBatches)) {
+            drainHead(context);
+        }
+        getOperation().bufferedRows(rowBuffer.size() + (long) pendingBatches.size() * validateBatchSize);
+    }
+
+    private void submitBatch() {
+        if (rowBuffer == null || rowBuffer.isEmpty()) {
+            return;
+        }
+        List<RowEntry<T>> batch = rowBuffer;
+        rowBuffer = new ArrayList<>(validateBatchSize);
+        Map<String, Integer> columns = fieldColumns;
+        Map<Integer, String> heads = headMap;
+        ExcelOperation current = getOperation();
+        try {
+            pendingBatches.addLast(CompletableFuture.supplyAsync(() -> validateBatch(batch, columns, heads, current), validateExecutor));
+        } catch (RejectedExecutionException e) {
+            cancelPending();
+            throw new ExcelAnalysisException("校验线程池拒绝任务：" + e.getMessage(), e);
+        }
+    }
+
+    private void drainHead(AnalysisContext context) {
+        List<RowEntry<T>> batch;
+        try {
+            batch = pendingBatches.pollFirst().join();
+        } catch (CompletionException e) {
+            cancelPending();
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            // 线程池或校验本身出错 不是某一行的数据问题 不记录到错误列表 直接中断解析
+            throw new ExcelAnalysisException("数据校验异常：" + cause.getMessage(), cause);
+        }
+        for (RowEntry<T> entry : batch) {
+            if (entry.errors == null) {
+                collect(entry.data, context);
+            } else {
+                recordErrors(entry.errors, context);
+            }
+        }
+    }
+
+    private List<RowEntry<T>> validateBatch(List<RowEntry<T>> batch, Map<String, Integer> columns, Map<Integer, String> heads,
+                                            ExcelOperation current) {
+        long start = current.startStage();
+        int validated = 0;
+        for (RowEntry<T> entry : batch) {
+            if (entry.data == null) {
+                continue;
+            }
+            validated++;
+            Collection<ConstraintViolation<T>> violations = CommonValidatorUtils.getViolations(entry.data);
+            if (!violations.isEmpty()) {
+                entry.errors = toErrors(entry.rowIndex, violations, columns, heads);
+            }
+        }
+        current.endStage(ExcelMetrics.STAGE_VALIDATE, start);
+        if (progressTracker != null) {
+            progressTracker.rowsValidated(validated);
+        }
+        return batch;
+    }
+
+    /**
+     * 校验违规转换为导入错误，按列号排序
+     */
+    private static List<ImportError> toErrors(int rowIndex, Collection<? extends ConstraintViolation<?>> violations,
+                                              Map<String, Integer> columns, Map<Integer, String> heads) {
+        List<ImportError> errors = new ArrayList<>(violations.size());
+        for (ConstraintViolation<?> violation : violations) {
+            Integer columnIndex = columns == null ? null : columns.get(rootProperty(violation));
+            String head = columnIndex == null || heads == null ? null : heads.get(columnIndex);
+            errors.add(new ImportError(rowIndex, columnIndex, head, violation.getMessage(), null));
+        }
+        // 多个违规的顺序不固定
+        errors.sort(ImportError.ORDER.thenComparing(ImportError::getMessage, Comparator.nullsLast(Comparator.naturalOrder())));
+        return errors;
+    }
+
+    /**
+     * 违规属性的第一级字段名
+     */
+    private static String rootProperty(ConstraintViolation<?> violation) {
+        String path = violation.getPropertyPath().toString();
+        int end = path.length();
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '.' || c == '[') {
+                end = i;
+                break;
+            }
+        }
+        return path.substring(0, end);
+    }
+
+    /**
+     * 根据 EasyExcel 解析出的表头建立字段名到列号的映射，每个sheet建立一次
+     */
+    private void prepareFieldColumns(AnalysisContext context) {
+        Integer sheetNo = context.readSheetHolder().getSheetNo();
+        if (fieldColumns != null && Objects.equals(sheetNo, fieldColumnsSheetNo)) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        if (context.readSheetHolder().excelReadHeadProperty() != null) {
+            for (Map.Entry<Integer, Head> entry : context.readSheetHolder().excelReadHeadProperty().getHeadMap().entrySet()) {
+                if (entry.getValue().getFieldName() != null) {
+                    columns.putIfAbsent(entry.getValue().getFieldName(), entry.getKey());
+                }
+            }
+        }
+        // 切换sheet前先提交上一个sheet的数据
+        submitBatch();
+        fieldColumns = columns;
+        fieldColumnsSheetNo = sheetNo;
+    }
+
+    /**
+     * 待校验的行
+     */
+    private static class RowEntry<T> {
+
+        private final int rowIndex;
+
+        private final T data;
+
+        /**
+         * 错误，为空表示校验通过
+         */
+        private List<ImportError> errors;
+
+        RowEntry(int rowIndex, T data, List<ImportError> errors) {
+            this.rowIndex = rowIndex;
+            this.data = data;
+            this.errors = errors;
+        }
+    }
+
 }
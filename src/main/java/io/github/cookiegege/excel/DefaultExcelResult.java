@@ -3,11 +3,13 @@ package io.github.cookiegege.excel;
 import cn.hutool.core.util.StrUtil;
 import lombok.Setter;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * 默认excel返回对象
+ * 导入错误按 {@link ImportErrorPolicy} 保存为 {@link ImportError}，读取错误列表或导入回执时才格式化
  *
  * @author Yjoioooo
  * @author Lion Li
@@ -26,19 +28,33 @@ public class DefaultExcelResult<T> implements ExcelResult<T> {
     @Setter
     private List<String> errorList;
 
+    /**
+     * 结构化的导入错误
+     */
+    private final ImportErrorCollector errors;
+
+    private final List<String> errorListView = new ErrorListView();
+
     public DefaultExcelResult() {
+        this(ImportErrorPolicy.failFast());
+    }
+
+    public DefaultExcelResult(ImportErrorPolicy errorPolicy) {
         this.list = new ArrayList<>();
         this.errorList = new ArrayList<>();
+        this.errors = new ImportErrorCollector(errorPolicy);
     }
 
     public DefaultExcelResult(List<T> list, List<String> errorList) {
         this.list = list;
         this.errorList = errorList;
+        this.errors = new ImportErrorCollector(ImportErrorPolicy.failFast());
     }
 
     public DefaultExcelResult(ExcelResult<T> excelResult) {
         this.list = excelResult.getList();
         this.errorList = excelResult.getErrorList();
+        this.errors = new ImportErrorCollector(ImportErrorPolicy.failFast());
     }
 
     @Override
@@ -46,9 +62,28 @@ public class DefaultExcelResult<T> implements ExcelResult<T> {
         return list;
     }
 
+    /**
+     * 错误信息列表，包含格式化后的导入错误
+     * 返回的是实时视图：新增的信息写入错误信息列表，导入错误在读取时才格式化
+     */
     @Override
     public List<String> getErrorList() {
-        return errorList;
+        return errorListView;
+    }
+
+    @Override
+    public boolean addError(ImportError error) {
+        return errors.add(error);
+    }
+
+    @Override
+    public List<ImportError> getErrors() {
+        return errors.getErrors();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errorList.size() + errors.getErrorCount();
     }
 
     /**
@@ -59,14 +94,52 @@ public class DefaultExcelResult<T> implements ExcelResult<T> {
     @Override
     public String getAnalysis() {
         int successCount = list.size();
-        int errorCount = errorList.size();
-        if (successCount == 0) {
-            return "读取失败，未解析到数据";
-        } else {
-            if (errorCount == 0) {
-                return StrUtil.format("恭喜您，全部读取成功！共{}条", successCount);
-            } else {
-                return "";
+        long errorCount = getErrorCount();
+        if (errorCount == 0) {
+            if (successCount == 0) {
+                return "读取失败，未解析到数据";
+            }
+            return StrUtil.format("恭喜您，全部读取成功！共{}条", successCount);
+        }
+        return ImportErrorCollector.report(successCount, errorCount, getErrorList());
+    }
+
+    /**
+     * 错误信息列表在前，格式化后的导入错误在后
+     */
+    private class ErrorListView extends AbstractList<String> {
+
+        @Override
+        public String get(int index) {
+            int size = errorList.size();
+            return index < size ? errorList.get(index) : errors.getErrors().get(index - size).format();
+        }
+
+        @Override
+        public int size() {
+            return errorList.size() + (errors.getErrorCount() == 0 ? 0 : errors.getErrors().size());
+        }
+
+        @Override
+        public void add(int index, String element) {
+            errorList.add(Math.min(index, errorList.size()), element);
+        }
+
+        @Override
+        public String set(int index, String element) {
+            checkMessageIndex(index);
+            return errorList.set(index, element);
+        }
+
+        @Override
+        public String remove(int index) {
+            checkMessageIndex(index);
+            return errorList.remove(index);
+        }
+
+        private void checkMessageIndex(int index) {
+            if (index >= errorList.size() && index < size()) {
+                throw new UnsupportedOperationException("导入错误不能修改");
             }
         }
     }
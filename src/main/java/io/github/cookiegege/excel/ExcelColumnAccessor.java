@@ -0,0 +1,145 @@
+package io.github.cookiegege.excel;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import io.github.cookiegege.exception.ExcelException;
+import lombok.Getter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 实体列访问器
+ * 按 {@link ExcelProperty#index()} 缓存实体类字段的读写句柄(包含父类字段)，列号即数组下标
+ *
+ * @author JoSuper
+ */
+public final class ExcelColumnAccessor {
+
+    private static final Map<Class<?>, ExcelColumnAccessor> CACHE = new ConcurrentHashMap<>();
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * 实体类型
+     */
+    @Getter
+    private final Class<?> type;
+
+    /**
+     * 列号对应的读句柄
+     */
+    private final MethodHandle[] getters;
+
+    /**
+     * 列号对应的写句柄
+     */
+    private final MethodHandle[] setters;
+
+    private ExcelColumnAccessor(Class<?> type) {
+        this.type = type;
+        TreeMap<Integer, Field> fieldMap = new TreeMap<>();
+        // 子类字段优先，同一列号不会被父类字段覆盖
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                ExcelProperty annotation = field.getAnnotation(ExcelProperty.class);
+                if (annotation != null && annotation.index() >= 0) {
+                    fieldMap.putIfAbsent(annotation.index(), field);
+                }
+            }
+        }
+        int size = fieldMap.isEmpty() ? 0 : fieldMap.lastKey() + 1;
+        this.getters = new MethodHandle[size];
+        this.setters = new MethodHandle[size];
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (Map.Entry<Integer, Field> entry : fieldMap.entrySet()) {
+            Field field = entry.getValue();
+            try {
+                field.setAccessible(true);
+                getters[entry.getKey()] = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+                setters[entry.getKey()] = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new ExcelException("无法访问字段{}.{}：{}", type.getName(), field.getName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 获取实体类的列访问器，每个类只解析一次
+     *
+     * @param type 实体类型
+     * @return 列访问器
+     */
+    public static ExcelColumnAccessor of(Class<?> type) {
+        return CACHE.computeIfAbsent(type, ExcelColumnAccessor::new);
+    }
+
+    /**
+     * 是否存在对应列的字段
+     *
+     * @param columnIndex 列
+     * @return 是否存在
+     */
+    public boolean hasColumn(int columnIndex) {
+        return columnIndex >= 0 && columnIndex < getters.length && getters[columnIndex] != null;
+    }
+
+    /**
+     * 读取列对应字段的值，没有对应字段时返回 null
+     *
+     * @param target      实体对象
+     * @param columnIndex 列
+     * @return 字段值
+     */
+    public Object get(Object target, int columnIndex) {
+        if (!hasColumn(columnIndex)) {
+            return null;
+        }
+        try {
+            return getters[columnIndex].invokeExact(target);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw wrap("读取", columnIndex, e);
+        }
+    }
+
+    /**
+     * 设置列对应字段的值，没有对应字段时忽略
+     *
+     * @param target      实体对象
+     * @param columnIndex 列
+     * @param value       字段值
+     */
+    public void set(Object target, int columnIndex, Object value) {
+        if (!hasColumn(columnIndex)) {
+            return;
+        }
+        try {
+            setters[columnIndex].invokeExact(target, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw wrap("设置", columnIndex, e);
+        }
+    }
+
+    /**
+     * 包装读写字段时的异常，保留原始异常，类型不匹配等异常的 message 通常为空
+     */
+    private static ExcelException wrap(String action, int columnIndex, Throwable e) {
+        ExcelException exception = new ExcelException("{}第{}列的值异常：{}", action, columnIndex, e.toString());
+        exception.initCause(e);
+        return exception;
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.cookiegege.excel;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -23,4 +24,29 @@ public interface ExcelResult<T> {
      * 导入回执
      */
     String getAnalysis();
+
+    /**
+     * 记录一条导入错误，默认格式化后放入错误列表
+     *
+     * @param error 导入错误
+     * @return 是否需要停止解析
+     */
+    default boolean addError(ImportError error) {
+        getErrorList().add(error.format());
+        return true;
+    }
+
+    /**
+     * 保留的结构化错误
+     */
+    default List<ImportError> getErrors() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * 错误总数，包括按策略没有保留的错误
+     */
+    default long getErrorCount() {
+        return getErrorList().size();
+    }
 }
@@ -0,0 +1,254 @@
+package io.github.cookiegege.excel;
+
+import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.io.resource.ClassPathResource;
+import io.github.cookiegege.exception.ExcelException;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * 模板文件缓存
+ * 模板按 classpath 路径只读取一次，之后每次导出从内存字节创建输入流，按最近最少使用淘汰
+ * 开启热加载(开发环境)时，模板为磁盘文件的会按修改时间自动重新读取
+ * <pre>
+ * // 开发环境通过启动参数开启热加载
+ * -Deasyexcel.template.hot-reload=true
+ * </pre>
+ *
+ * @author JoSuper
+ */
+public final class ExcelTemplateCache {
+
+    /**
+     * 热加载开关的系统属性
+     */
+    public static final String HOT_RELOAD_PROPERTY = "easyexcel.template.hot-reload";
+
+    private static final int DEFAULT_MAX_ENTRIES = 64;
+
+    private static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+
+    /**
+     * 热加载时两次检查修改时间的默认最小间隔，避免每次导出都访问文件系统
+     */
+    public static final Duration DEFAULT_CHECK_INTERVAL = Duration.ofSeconds(1);
+
+    private static volatile ExcelTemplateCache defaultCache;
+
+    private final int maxEntries;
+
+    private final long maxBytes;
+
+    private final boolean hotReload;
+
+    private final long checkIntervalNanos;
+
+    private final ClassLoader classLoader;
+
+    private final LinkedHashMap<String, Template> templates = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalBytes;
+
+    public ExcelTemplateCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES, Boolean.getBoolean(HOT_RELOAD_PROPERTY));
+    }
+
+    /**
+     * @param maxEntries 最多缓存的模板数量
+     * @param maxBytes   缓存模板的总字节数上限，单个模板超过上限时仍会缓存
+     * @param hotReload  是否按文件修改时间热加载
+     */
+    public ExcelTemplateCache(int maxEntries, long maxBytes, boolean hotReload) {
+        this(maxEntries, maxBytes, hotReload ? DEFAULT_CHECK_INTERVAL : null, null);
+    }
+
+    /**
+     * @param maxEntries    最多缓存的模板数量
+     * @param maxBytes      缓存模板的总字节数上限，单个模板超过上限时仍会缓存
+     * @param checkInterval 热加载时两次检查修改时间的最小间隔，为空时不热加载，为0时每次获取都检查
+     * @param classLoader   加载模板的类加载器，为空时使用默认类加载器
+     */
+    public ExcelTemplateCache(int maxEntries, long maxBytes, Duration checkInterval, ClassLoader classLoader) {
+        if (maxEntries < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("maxEntries 和 maxBytes 必须大于0");
+        }
+        if (checkInterval != null && checkInterval.isNegative()) {
+            throw new IllegalArgumentException("checkInterval 不能小于0");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.hotReload = checkInterval != null;
+        this.checkIntervalNanos = checkInterval == null ? 0 : checkInterval.toNanos();
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * 获取默认缓存，EasyExcelUtil 的模板导出使用该缓存
+     */
+    public static ExcelTemplateCache getDefault() {
+        ExcelTemplateCache cache = defaultCache;
+        if (cache == null) {
+            synchronized (ExcelTemplateCache.class) {
+                cache = defaultCache;
+                if (cache == null) {
+                    cache = new ExcelTemplateCache();
+                    defaultCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * 替换默认缓存
+     *
+     * @param cache 缓存，为空时下次获取重新创建
+     */
+    public static void setDefault(ExcelTemplateCache cache) {
+        defaultCache = cache;
+    }
+
+    /**
+     * 打开模板输入流，每次调用返回新的流
+     *
+     * @param templatePath 模板路径 resource 目录下的路径包括模板文件名
+     * @return 模板输入流
+     */
+    public InputStream open(String templatePath) {
+        return new ByteArrayInputStream(get(templatePath));
+    }
+
+    /**
+     * 获取模板内容，返回的数组为缓存本身，调用方不得修改
+     *
+     * @param templatePath 模板路径 resource 目录下的路径包括模板文件名
+     * @return 模板内容
+     */
+    public byte[] get(String templatePath) {
+        Template template;
+        synchronized (this) {
+            template = templates.get(templatePath);
+        }
+        if (template != null && !isModified(template)) {
+            return template.bytes;
+        }
+        // 读取放在锁外，并发加载同一模板时以最后一次为准
+        template = load(templatePath);
+        synchronized (this) {
+            Template previous = templates.put(templatePath, template);
+            if (previous != null) {
+                totalBytes -= previous.bytes.length;
+            }
+            totalBytes += template.bytes.length;
+            evict();
+        }
+        return template.bytes;
+    }
+
+    /**
+     * 移除模板缓存
+     *
+     * @param templatePath 模板路径
+     */
+    public synchronized void evict(String templatePath) {
+        Template template = templates.remove(templatePath);
+        if (template != null) {
+            totalBytes -= template.bytes.length;
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void clear() {
+        templates.clear();
+        totalBytes = 0;
+    }
+
+    /**
+     * 已缓存的模板数量
+     */
+    public synchronized int size() {
+        return templates.size();
+    }
+
+    /**
+     * 已缓存模板的总字节数
+     */
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    private void evict() {
+        Iterator<Template> iterator = templates.values().iterator();
+        while (templates.size() > 1 && (templates.size() > maxEntries || totalBytes > maxBytes)) {
+            totalBytes -= iterator.next().bytes.length;
+            iterator.remove();
+        }
+    }
+
+    private boolean isModified(Template template) {
+        if (template.file == null) {
+            return false;
+        }
+        long now = System.nanoTime();
+        if (now - template.checkNanos < checkIntervalNanos) {
+            return false;
+        }
+        template.checkNanos = now;
+        return template.file.lastModified() != template.lastModified;
+    }
+
+    private Template load(String templatePath) {
+        try {
+            ClassPathResource resource = new ClassPathResource(templatePath, classLoader);
+            File file = hotReload ? toFile(resource.getUrl()) : null;
+            // 先取修改时间再读取，读取期间文件被修改时下次检查会重新加载
+            long lastModified = file != null ? file.lastModified() : 0;
+            try (InputStream is = resource.getStream()) {
+                return new Template(IoUtil.readBytes(is), file, lastModified);
+            }
+        } catch (Exception e) {
+            ExcelException exception = new ExcelException("读取模板文件失败: {}", templatePath);
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
+    /**
+     * 只有磁盘上的模板才支持热加载，jar 包内的模板不会变化
+     */
+    private static File toFile(URL url) {
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return new File(url.toURI());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static final class Template {
+
+        private final byte[] bytes;
+
+        private final File file;
+
+        private final long lastModified;
+
+        private volatile long checkNanos = System.nanoTime();
+
+        private Template(byte[] bytes, File file, long lastModified) {
+            this.bytes = bytes;
+            this.file = file;
+            this.lastModified = lastModified;
+        }
+    }
+}
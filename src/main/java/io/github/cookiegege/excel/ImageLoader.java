@@ -0,0 +1,74 @@
+package io.github.cookiegege.excel;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.IoUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+/**
+ * 图片加载器，把 {@link ImageSourceData} 中的图片来源读取为字节
+ *
+ * @author JoSuper
+ */
+@FunctionalInterface
+public interface ImageLoader {
+
+    /**
+     * 默认加载器，支持 byte[]、File、Path、URL、URI、InputStream，
+     * 字符串以 http:// 或 https:// 开头时按 URL 读取，否则按文件路径读取，Supplier 取值后按以上规则读取
+     */
+    ImageLoader DEFAULT = source -> {
+        if (source instanceof Supplier) {
+            source = ((Supplier<?>) source).get();
+        }
+        if (source instanceof byte[]) {
+            return (byte[]) source;
+        }
+        if (source instanceof File) {
+            return FileUtil.readBytes((File) source);
+        }
+        if (source instanceof Path) {
+            return Files.readAllBytes((Path) source);
+        }
+        if (source instanceof URI) {
+            source = ((URI) source).toURL();
+        }
+        if (source instanceof URL) {
+            try (InputStream is = ((URL) source).openStream()) {
+                return IoUtil.readBytes(is);
+            }
+        }
+        if (source instanceof InputStream) {
+            try (InputStream is = (InputStream) source) {
+                return IoUtil.readBytes(is);
+            }
+        }
+        if (source instanceof String) {
+            String value = (String) source;
+            if (value.startsWith("http://") || value.startsWith("https://")) {
+                try (InputStream is = new URL(value).openStream()) {
+                    return IoUtil.readBytes(is);
+                }
+            }
+            return FileUtil.readBytes(value);
+        }
+        throw new IOException("不支持的图片来源：" + (source == null ? null : source.getClass().getName()));
+    };
+
+    /**
+     * 读取图片
+     *
+     * @param source 图片来源
+     * @return 图片数据
+     * @throws IOException 读取失败
+     */
+    byte[] load(Object source) throws IOException;
+
+}
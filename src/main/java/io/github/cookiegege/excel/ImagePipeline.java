@@ -0,0 +1,245 @@
+package io.github.cookiegege.excel;
+
+import cn.hutool.core.util.ReflectUtil;
+import com.alibaba.excel.annotation.ExcelIgnore;
+import com.alibaba.excel.metadata.data.ImageData;
+import com.alibaba.excel.metadata.data.WriteCellData;
+import io.github.cookiegege.exception.ExcelException;
+import io.github.cookiegege.util.ExcelExecutors;
+import io.github.cookiegege.util.ImageUtils;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * 图片预处理
+ * 在数据交给 ExcelWriter 之前，在线程池中并行加载图片来源、识别真实格式、把过大的图片缩小到单元格大小并重新编码，
+ * 之后 {@link CustomImageModifyHandler} 只需要插入处理好的图片
+ * <p>
+ * 处理实体类中 WriteCellData 字段的图片列表(包括 {@link ImageSourceData})和 byte[] 图片字段
+ * <p>
+ * 开启 lazy 后 {@link ImageSourceData} 不会提前加载到内存：配置了 {@link ImageSpillArea} 时预处理好的缩略图写到磁盘，
+ * 否则由 {@link CustomImageModifyHandler} 在写出单元格时加载，堆内存只与同时处理的图片数量有关
+ *
+ * @author JoSuper
+ */
+@Getter
+@Builder
+public class ImagePipeline {
+
+    /**
+     * 默认单元格图片大小，与 {@link CustomImageModifyHandler} 插入的尺寸一致
+     */
+    public static final int DEFAULT_SIZE = 60;
+
+    /**
+     * 每个实体类中可能包含图片的字段
+     */
+    private static final Map<Class<?>, Field[]> IMAGE_FIELDS = new ConcurrentHashMap<>();
+
+    /**
+     * 处理图片的线程池，为空时使用共享的有界线程池
+     */
+    private Executor executor;
+
+    /**
+     * 图片加载器
+     */
+    @Builder.Default
+    private ImageLoader loader = ImageLoader.DEFAULT;
+
+    /**
+     * 图片最大宽度(像素)
+     */
+    @Builder.Default
+    private int maxWidth = DEFAULT_SIZE;
+
+    /**
+     * 图片最大高度(像素)
+     */
+    @Builder.Default
+    private int maxHeight = DEFAULT_SIZE;
+
+    /**
+     * 是否延迟加载 {@link ImageSourceData}，行数据只保留来源或缩略图路径
+     */
+    private boolean lazy;
+
+    /**
+     * 延迟加载时缓存缩略图的磁盘区域，为空时在写出单元格时才加载
+     */
+    private ImageSpillArea spillArea;
+
+    /**
+     * 使用默认配置
+     */
+    public static ImagePipeline create() {
+        return ImagePipeline.builder().build();
+    }
+
+    /**
+     * 并行处理数据中的所有图片，全部完成后返回
+     *
+     * @param list 导出数据
+     * @return 原数据，图片已替换为处理后的数据
+     */
+    public <T> List<T> prepare(List<T> list) {
+        if (list == null || list.isEmpty()) {
+            return list;
+        }
+        Executor pool = executor == null ? ExcelExecutors.defaultExecutor() : executor;
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (T row : list) {
+            if (row == null) {
+                continue;
+            }
+            for (Field field : imageFields(row.getClass())) {
+                Object value = ReflectUtil.getFieldValue(row, field);
+                if (value instanceof WriteCellData) {
+                    List<ImageData> images = ((WriteCellData<?>) value).getImageDataList();
+                    if (images == null) {
+                        continue;
+                    }
+                    for (ImageData image : images) {
+                        if (image == null || isDeferred(image)) {
+                            continue;
+                        }
+                        futures.add(CompletableFuture.runAsync(() -> prepare(image), pool));
+                    }
+                } else if (value instanceof byte[]) {
+                    futures.add(CompletableFuture.runAsync(() -> ReflectUtil.setFieldValue(row, field, process((byte[]) value)), pool));
+                }
+            }
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            if (cause instanceof ExcelException) {
+                throw (ExcelException) cause;
+            }
+            ExcelException exception = new ExcelException("处理图片异常：{}", cause.getMessage());
+            exception.initCause(cause);
+            throw exception;
+        }
+        return list;
+    }
+
+    /**
+     * 处理单张图片：需要时先加载来源，再缩小、重新编码并设置真实格式
+     * 延迟加载并配置了缓存区时，只把缩略图写到磁盘，不保留图片数据
+     *
+     * @param imageData 图片
+     * @return 原图片对象
+     */
+    public ImageData prepare(ImageData imageData) {
+        if (lazy && spillArea != null && imageData instanceof ImageSourceData && imageData.getImage() == null) {
+            ImageSourceData sourceData = (ImageSourceData) imageData;
+            if (sourceData.getThumbnail() == null) {
+                sourceData.setThumbnail(spillArea.spill(sourceData.getSource(), source -> process(loadSource(source))));
+            }
+            return imageData;
+        }
+        byte[] data = load(imageData);
+        if (data == null) {
+            return imageData;
+        }
+        imageData.setImage(data);
+        imageData.setImageType(getImageType(data));
+        return imageData;
+    }
+
+    /**
+     * 获取处理好的图片数据，不修改图片对象，调用方用完即可释放
+     *
+     * @param imageData 图片
+     * @return 图片数据，没有图片时返回 null
+     */
+    public byte[] load(ImageData imageData) {
+        byte[] data = imageData.getImage();
+        if (data != null) {
+            return process(data);
+        }
+        if (!(imageData instanceof ImageSourceData)) {
+            return null;
+        }
+        ImageSourceData sourceData = (ImageSourceData) imageData;
+        if (sourceData.getThumbnail() != null && spillArea != null) {
+            return spillArea.read(sourceData.getThumbnail());
+        }
+        return process(loadSource(sourceData.getSource()));
+    }
+
+    /**
+     * 延迟加载且没有缓存区时，来源图片留给写出单元格时加载
+     */
+    private boolean isDeferred(ImageData imageData) {
+        return lazy && spillArea == null && imageData instanceof ImageSourceData && imageData.getImage() == null;
+    }
+
+    private byte[] loadSource(Object source) {
+        try {
+            return loader.load(source);
+        } catch (IOException e) {
+            ExcelException exception = new ExcelException("加载图片异常：{}", source);
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
+    /**
+     * 缩小并重新编码
+     *
+     * @param data 图片数据
+     * @return 处理后的图片数据
+     */
+    public byte[] process(byte[] data) {
+        try {
+            return ImageUtils.resize(data, maxWidth, maxHeight);
+        } catch (IOException e) {
+            ExcelException exception = new ExcelException("处理图片异常：{}", e.getMessage());
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
+    private static ImageData.ImageType getImageType(byte[] data) {
+        String format = ImageUtils.getFormat(data);
+        if (ImageUtils.JPEG.equals(format)) {
+            return ImageData.ImageType.PICTURE_TYPE_JPEG;
+        }
+        if (ImageUtils.EMF.equals(format)) {
+            return ImageData.ImageType.PICTURE_TYPE_EMF;
+        }
+        if (ImageUtils.WMF.equals(format)) {
+            return ImageData.ImageType.PICTURE_TYPE_WMF;
+        }
+        return ImageData.ImageType.PICTURE_TYPE_PNG;
+    }
+
+    private static Field[] imageFields(Class<?> clazz) {
+        return IMAGE_FIELDS.computeIfAbsent(clazz, key -> {
+            List<Field> fields = new ArrayList<>();
+            for (Field field : ReflectUtil.getFields(key)) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isAnnotationPresent(ExcelIgnore.class)) {
+                    continue;
+                }
+                if (WriteCellData.class.isAssignableFrom(field.getType()) || field.getType() == byte[].class) {
+                    fields.add(field);
+                }
+            }
+            return fields.toArray(new Field[0]);
+        });
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.cookiegege.excel;
+
+import com.alibaba.excel.metadata.data.ImageData;
+import com.alibaba.excel.metadata.data.WriteCellData;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 只记录来源的图片，由 {@link ImagePipeline} 通过 {@link ImageLoader} 加载图片数据
+ * 没有提前加载时，{@link CustomImageModifyHandler} 在写出单元格时才加载，插入后不再持有图片数据
+ *
+ * @author JoSuper
+ */
+@Getter
+@Setter
+public class ImageSourceData extends ImageData {
+
+    /**
+     * 图片来源，如文件、路径、URL，具体支持的类型取决于使用的 {@link ImageLoader}
+     */
+    private Object source;
+
+    /**
+     * 预处理后缓存在磁盘上的缩略图，见 {@link ImageSpillArea}
+     */
+    private Path thumbnail;
+
+    public ImageSourceData(Object source) {
+        this.source = source;
+    }
+
+    /**
+     * 构造图片单元格，可以直接作为实体类 WriteCellData 字段的值
+     *
+     * @param sources 图片来源
+     * @return 单元格数据
+     */
+    public static WriteCellData<Void> cellData(Collection<?> sources) {
+        List<ImageData> images = new ArrayList<>(sources.size());
+        for (Object source : sources) {
+            images.add(new ImageSourceData(source));
+        }
+        WriteCellData<Void> cellData = new WriteCellData<>();
+        cellData.setImageDataList(images);
+        return cellData;
+    }
+
+}
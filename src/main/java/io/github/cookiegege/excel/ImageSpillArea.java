@@ -0,0 +1,150 @@
+package io.github.cookiegege.excel;
+
+import cn.hutool.core.io.FileUtil;
+import io.github.cookiegege.exception.ExcelException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 图片磁盘缓存区
+ * {@link ImagePipeline} 预处理好的缩略图写到这里，行数据只保留文件路径，写出单元格时再读回，
+ * 同一个来源只处理一次。导出完成后调用 {@link #close()} 删除缓存目录
+ *
+ * @author JoSuper
+ */
+public class ImageSpillArea implements Closeable {
+
+    private final Path directory;
+
+    /**
+     * 是否由本对象创建的目录，关闭时整个删除
+     */
+    private final boolean ownsDirectory;
+
+    /**
+     * 来源对应的缓存文件，由第一个请求该来源的线程生成，其他线程等待同一个结果
+     */
+    private final Map<Object, CompletableFuture<Path>> files = new ConcurrentHashMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * 在系统临时目录下创建缓存区
+     */
+    public ImageSpillArea() {
+        try {
+            this.directory = Files.createTempDirectory("easyexcel-images");
+        } catch (IOException e) {
+            ExcelException exception = new ExcelException("创建图片缓存目录异常：{}", e.getMessage());
+            exception.initCause(e);
+            throw exception;
+        }
+        this.ownsDirectory = true;
+    }
+
+    /**
+     * 使用指定目录作为缓存区，关闭时只删除写入的文件
+     *
+     * @param directory 缓存目录
+     */
+    public ImageSpillArea(Path directory) {
+        this.directory = directory;
+        this.ownsDirectory = false;
+        FileUtil.mkdir(directory.toFile());
+    }
+
+    /**
+     * 获取来源对应的缓存文件，不存在时通过 processor 生成并写入磁盘
+     * 加载、缩小和写文件都在 map 外执行，不会占用 ConcurrentHashMap 的桶锁；同一来源并发请求时只处理一次
+     *
+     * @param source    图片来源
+     * @param processor 生成缩略图
+     * @return 缓存文件
+     */
+    public Path spill(Object source, Function<Object, byte[]> processor) {
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> future = files.putIfAbsent(source, created);
+        if (future == null) {
+            try {
+                created.complete(write(processor.apply(source)));
+            } catch (RuntimeException | Error e) {
+                // 失败的来源不缓存，之后的请求重新处理
+                files.remove(source, created);
+                created.completeExceptionally(e);
+                throw e;
+            }
+            future = created;
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 读取缓存文件
+     *
+     * @param file 缓存文件
+     * @return 图片数据
+     */
+    public byte[] read(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            ExcelException exception = new ExcelException("读取图片缓存异常：{}", file);
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
+    /**
+     * 已缓存的图片数量
+     */
+    public int size() {
+        return files.size();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void close() {
+        if (ownsDirectory) {
+            FileUtil.del(directory);
+        } else {
+            files.values().forEach(future -> {
+                Path file = future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+                if (file != null) {
+                    FileUtil.del(file);
+                }
+            });
+        }
+        files.clear();
+    }
+
+    private Path write(byte[] data) {
+        Path file = directory.resolve(sequence.incrementAndGet() + ".img");
+        try {
+            return Files.write(file, data);
+        } catch (IOException e) {
+            ExcelException exception = new ExcelException("写入图片缓存异常：{}", file);
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+}
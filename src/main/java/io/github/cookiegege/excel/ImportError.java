@@ -0,0 +1,76 @@
+package io.github.cookiegege.excel;
+
+import cn.hutool.core.util.StrUtil;
+import lombok.Getter;
+
+import java.util.Comparator;
+
+/**
+ * 导入错误
+ * 只记录行号、列号、表头和原因，错误信息在读取时才格式化
+ *
+ * @author JoSuper
+ */
+@Getter
+public class ImportError {
+
+    /**
+     * 按行号、列号排序，未知的行号或列号排在最后
+     */
+    public static final Comparator<ImportError> ORDER = Comparator
+            .comparing(ImportError::getRowIndex, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ImportError::getColumnIndex, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    /**
+     * 行号，从0开始，未知时为空
+     */
+    private final Integer rowIndex;
+
+    /**
+     * 列号，从0开始，未知时为空
+     */
+    private final Integer columnIndex;
+
+    /**
+     * 表头
+     */
+    private final String head;
+
+    /**
+     * 错误原因
+     */
+    private final String message;
+
+    /**
+     * 原始异常，校验错误时为空
+     */
+    private final Throwable cause;
+
+    public ImportError(Integer rowIndex, Integer columnIndex, String head, String message, Throwable cause) {
+        this.rowIndex = rowIndex;
+        this.columnIndex = columnIndex;
+        this.head = head;
+        this.message = message;
+        this.cause = cause;
+    }
+
+    /**
+     * 格式化错误信息
+     *
+     * @return 如 第2行-第3列-表头年龄: 解析异常
+     */
+    public String format() {
+        if (rowIndex == null) {
+            return message;
+        }
+        if (columnIndex == null) {
+            return StrUtil.format("第{}行数据校验异常: {}", rowIndex + 1, message);
+        }
+        return StrUtil.format("第{}行-第{}列-表头{}: {}", rowIndex + 1, columnIndex + 1, head, message);
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.cookiegege.excel;
+
+import cn.hutool.core.util.StrUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 按 {@link ImportErrorPolicy} 保存导入错误，只在解析线程中调用
+ *
+ * @author JoSuper
+ */
+final class ImportErrorCollector {
+
+    private final ImportErrorPolicy policy;
+
+    private final List<ImportError> errors = new ArrayList<>();
+
+    /**
+     * 错误总数，包括没有保留的错误
+     */
+    private long errorCount;
+
+    /**
+     * 抽样模式下保留的错误是否需要重新排序
+     */
+    private boolean unsorted;
+
+    ImportErrorCollector(ImportErrorPolicy policy) {
+        this.policy = policy == null ? ImportErrorPolicy.failFast() : policy;
+    }
+
+    /**
+     * 记录一条错误
+     *
+     * @return 是否需要停止解析
+     */
+    boolean add(ImportError error) {
+        errorCount++;
+        int limit = policy.getLimit();
+        if (errors.size() < limit) {
+            errors.add(error);
+            unsorted = policy.getMode() == ImportErrorPolicy.Mode.SAMPLE;
+        } else if (policy.getMode() == ImportErrorPolicy.Mode.SAMPLE) {
+            // 蓄水池抽样：第 n 条错误以 limit/n 的概率替换已保留的错误
+            long index = ThreadLocalRandom.current().nextLong(errorCount);
+            if (index < limit) {
+                errors.set((int) index, error);
+                unsorted = true;
+            }
+        }
+        return policy.getMode() != ImportErrorPolicy.Mode.SAMPLE && errorCount >= limit;
+    }
+
+    /**
+     * 保留的错误，按行号排序
+     * 抽样替换与顺序无关，需要时原地排序
+     */
+    List<ImportError> getErrors() {
+        if (unsorted) {
+            errors.sort(ImportError.ORDER);
+            unsorted = false;
+        }
+        return Collections.unmodifiableList(errors);
+    }
+
+    long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * 格式化保留的错误
+     */
+    List<String> format() {
+        List<ImportError> list = getErrors();
+        List<String> messages = new ArrayList<>(list.size());
+        for (ImportError error : list) {
+            messages.add(error.format());
+        }
+        return messages;
+    }
+
+    /**
+     * 有错误时的导入回执
+     *
+     * @param successCount 成功条数
+     * @param errorCount   错误总数
+     * @param messages     保留的错误信息
+     */
+    static String report(long successCount, long errorCount, List<String> messages) {
+        String summary = messages.size() < errorCount
+                ? StrUtil.format("读取完成，成功{}条，错误{}条(列出{}条)", successCount, errorCount, messages.size())
+                : StrUtil.format("读取完成，成功{}条，错误{}条", successCount, errorCount);
+        return summary + "<br/>" + String.join("<br/>", messages);
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.cookiegege.excel;
+
+import lombok.Getter;
+
+/**
+ * 导入错误处理策略
+ * <ul>
+ *     <li>failFast：遇到第一行错误即中断导入并抛出异常(默认)</li>
+ *     <li>collect(N)：记录前N条错误，达到N条后停止解析，已解析的数据正常返回</li>
+ *     <li>sample(N)：解析全部数据，只随机保留N条错误(蓄水池抽样)，错误总数仍然准确</li>
+ * </ul>
+ *
+ * @author JoSuper
+ */
+@Getter
+public final class ImportErrorPolicy {
+
+    private static final ImportErrorPolicy FAIL_FAST = new ImportErrorPolicy(Mode.FAIL_FAST, 1);
+
+    private static final ImportErrorPolicy COLLECT_ALL = new ImportErrorPolicy(Mode.COLLECT, Integer.MAX_VALUE);
+
+    /**
+     * 处理方式
+     */
+    private final Mode mode;
+
+    /**
+     * 最多保留的错误条数
+     */
+    private final int limit;
+
+    private ImportErrorPolicy(Mode mode, int limit) {
+        this.mode = mode;
+        this.limit = limit;
+    }
+
+    /**
+     * 遇到错误立即中断
+     */
+    public static ImportErrorPolicy failFast() {
+        return FAIL_FAST;
+    }
+
+    /**
+     * 记录前 max 条错误，达到后停止解析
+     *
+     * @param max 最多记录的错误条数
+     */
+    public static ImportErrorPolicy collect(int max) {
+        if (max <= 0) {
+            throw new IllegalArgumentException("错误条数必须大于0");
+        }
+        return new ImportErrorPolicy(Mode.COLLECT, max);
+    }
+
+    /**
+     * 记录全部错误，不停止解析，错误很多时内存不受限制
+     */
+    public static ImportErrorPolicy collectAll() {
+        return COLLECT_ALL;
+    }
+
+    /**
+     * 解析全部数据，随机保留 size 条错误
+     *
+     * @param size 保留的错误条数
+     */
+    public static ImportErrorPolicy sample(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("错误条数必须大于0");
+        }
+        return new ImportErrorPolicy(Mode.SAMPLE, size);
+    }
+
+    public enum Mode {
+        /**
+         * 遇到错误立即中断
+         */
+        FAIL_FAST,
+        /**
+         * 记录前N条错误
+         */
+        COLLECT,
+        /**
+         * 抽样保留N条错误
+         */
+        SAMPLE
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.cookiegege.excel;
+
+import lombok.Getter;
+
+/**
+ * 导入进度快照
+ *
+ * @author JoSuper
+ */
+@Getter
+public class ImportProgress {
+
+    /**
+     * 已解析的数据行数(包括转换失败的行)
+     */
+    private final long rowsParsed;
+
+    /**
+     * 已完成校验的数据行数，未开启校验时为0
+     */
+    private final long rowsValidated;
+
+    /**
+     * 已记录的错误数量
+     */
+    private final long errorCount;
+
+    /**
+     * 已从输入流读取的字节数
+     * xlsx 需要先读取整个文件再解析，开始解析时即为文件大小；csv 随解析增长
+     */
+    private final long bytesRead;
+
+    /**
+     * 当前sheet大约的数据行数(来自文件中记录的区域，不含表头)，未知时为-1
+     */
+    private final long approximateRows;
+
+    /**
+     * 已用时间(毫秒)
+     */
+    private final long elapsedMillis;
+
+    /**
+     * 平均每秒解析的行数
+     */
+    private final double rowsPerSecond;
+
+    /**
+     * 是否已结束(成功、失败或按策略停止)
+     */
+    private final boolean finished;
+
+    ImportProgress(long rowsParsed, long rowsValidated, long errorCount, long bytesRead, long approximateRows,
+                   long elapsedMillis, boolean finished) {
+        this.rowsParsed = rowsParsed;
+        this.rowsValidated = rowsValidated;
+        this.errorCount = errorCount;
+        this.bytesRead = bytesRead;
+        this.approximateRows = approximateRows;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = elapsedMillis > 0 ? rowsParsed * 1000.0 / elapsedMillis : 0;
+        this.finished = finished;
+    }
+
+    /**
+     * 按大约的数据行数估算的进度百分比，行数未知时返回-1，结束时返回100
+     */
+    public int getPercent() {
+        if (finished) {
+            return 100;
+        }
+        if (approximateRows <= 0) {
+            return -1;
+        }
+        return (int) Math.min(99, rowsParsed * 100 / approximateRows);
+    }
+
+    @Override
+    public String toString() {
+        return "ImportProgress(rowsParsed=" + rowsParsed + ", rowsValidated=" + rowsValidated + ", errorCount=" + errorCount
+                + ", bytesRead=" + bytesRead + ", rowsPerSecond=" + Math.round(rowsPerSecond) + ", finished=" + finished + ")";
+    }
+}
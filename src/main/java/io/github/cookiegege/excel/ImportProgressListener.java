@@ -0,0 +1,18 @@
+package io.github.cookiegege.excel;
+
+/**
+ * 导入进度回调，在解析线程中按间隔调用，结束时再调用一次
+ * 回调中不要执行耗时操作，否则会拖慢解析
+ *
+ * @author JoSuper
+ */
+@FunctionalInterface
+public interface ImportProgressListener {
+
+    /**
+     * 进度更新
+     *
+     * @param progress 进度快照
+     */
+    void onProgress(ImportProgress progress);
+}
@@ -0,0 +1,159 @@
+package io.github.cookiegege.excel;
+
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.read.metadata.holder.ReadSheetHolder;
+import io.github.cookiegege.util.CountingInputStream;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 导入进度统计，由监听器在解析线程中调用，按间隔回调 {@link ImportProgressListener}
+ * 每解析 {@value #CHECK_INTERVAL_ROWS} 行才检查一次时间，不会给每行增加计时开销
+ * {@link #getProgress()} 可以在其他线程中轮询
+ * <pre>
+ * ImportProgressTracker tracker = new ImportProgressTracker(progress -&gt; log.info("{}", progress));
+ * listener.setProgressTracker(tracker);
+ * try {
+ *     EasyExcel.read(tracker.track(is), clazz, listener).sheet().doRead();
+ * } finally {
+ *     tracker.finish();
+ * }
+ * </pre>
+ *
+ * @author JoSuper
+ */
+public class ImportProgressTracker {
+
+    /**
+     * 默认回调间隔
+     */
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(1);
+
+    private static final int CHECK_INTERVAL_ROWS = 64;
+
+    private final ImportProgressListener listener;
+
+    private final long intervalNanos;
+
+    private final long startNanos = System.nanoTime();
+
+    private volatile long lastReportNanos = startNanos;
+
+    /**
+     * 只在解析线程中修改
+     */
+    private volatile long rowsParsed;
+
+    private final LongAdder rowsValidated = new LongAdder();
+
+    private final LongAdder errorCount = new LongAdder();
+
+    private volatile long approximateRows = -1;
+
+    private volatile CountingInputStream input;
+
+    private volatile boolean finished;
+
+    public ImportProgressTracker(ImportProgressListener listener) {
+        this(listener, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * @param listener 进度回调
+     * @param interval 回调间隔
+     */
+    public ImportProgressTracker(ImportProgressListener listener, Duration interval) {
+        if (listener == null) {
+            throw new IllegalArgumentException("进度回调不能为空");
+        }
+        this.listener = listener;
+        this.intervalNanos = interval == null ? DEFAULT_INTERVAL.toNanos() : interval.toNanos();
+    }
+
+    /**
+     * 包装输入流以统计读取的字节数
+     *
+     * @param is 输入流
+     * @return 统计字节数的输入流
+     */
+    public InputStream track(InputStream is) {
+        input = new CountingInputStream(is);
+        return input;
+    }
+
+    /**
+     * 解析完一行
+     *
+     * @param context Excel 上下文，用于获取大约的数据行数，可以为空
+     */
+    public void rowParsed(AnalysisContext context) {
+        long rows = rowsParsed + 1;
+        rowsParsed = rows;
+        boolean check = rows % CHECK_INTERVAL_ROWS == 0;
+        // 大约行数与是否回调无关，轮询时也能拿到
+        if ((rows == 1 || check) && context != null) {
+            updateApproximateRows(context.readSheetHolder());
+        }
+        if (!check) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - lastReportNanos < intervalNanos) {
+            return;
+        }
+        lastReportNanos = now;
+        listener.onProgress(snapshot(now, false));
+    }
+
+    /**
+     * 完成校验，可以在校验线程中调用
+     *
+     * @param rows 行数
+     */
+    public void rowsValidated(long rows) {
+        rowsValidated.add(rows);
+    }
+
+    /**
+     * 记录错误
+     *
+     * @param count 错误数量
+     */
+    public void addErrors(long count) {
+        errorCount.add(count);
+    }
+
+    /**
+     * 结束统计并回调最后一次进度，只回调一次
+     */
+    public void finish() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        listener.onProgress(snapshot(System.nanoTime(), true));
+    }
+
+    /**
+     * 当前进度
+     */
+    public ImportProgress getProgress() {
+        return snapshot(System.nanoTime(), finished);
+    }
+
+    private void updateApproximateRows(ReadSheetHolder sheetHolder) {
+        Integer total = sheetHolder == null ? null : sheetHolder.getApproximateTotalRowNumber();
+        if (total != null && total > 0) {
+            Integer headRowNumber = sheetHolder.getHeadRowNumber();
+            approximateRows = Math.max(0, total - (headRowNumber == null ? 0 : headRowNumber));
+        }
+    }
+
+    private ImportProgress snapshot(long now, boolean end) {
+        CountingInputStream counting = input;
+        return new ImportProgress(rowsParsed, rowsValidated.sum(), errorCount.sum(), counting == null ? 0 : counting.getCount(),
+                approximateRows, (now - startNanos) / 1_000_000, end);
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.cookiegege.excel;
+
+import java.util.Arrays;
+
+/**
+ * long 类型的开放寻址哈希集合，避免装箱和字符串拼接
+ *
+ * @author JoSuper
+ */
+final class LongHashSet {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] table;
+
+    private int size;
+
+    /**
+     * 是否已经包含 {@link #EMPTY}，它作为空槽标记不能放进表里
+     */
+    private boolean containsEmpty;
+
+    LongHashSet() {
+        this(16);
+    }
+
+    LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+    }
+
+    /**
+     * 添加元素
+     *
+     * @param value 元素
+     * @return 添加前不存在时返回 true
+     */
+    boolean add(long value) {
+        if (value == EMPTY) {
+            if (containsEmpty) {
+                return false;
+            }
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+        int mask = table.length - 1;
+        int index = mix(value) & mask;
+        while (table[index] != EMPTY) {
+            if (table[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+        // 负载因子 0.5
+        if (++size * 2 > table.length) {
+            rehash(table.length << 1);
+        }
+        return true;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = table;
+        table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+        int mask = capacity - 1;
+        for (long value : old) {
+            if (value != EMPTY) {
+                int index = mix(value) & mask;
+                while (table[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = value;
+            }
+        }
+    }
+
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.cookiegege.excel;
+
+import com.alibaba.excel.metadata.CellExtra;
+import io.github.cookiegege.exception.ExcelException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 合并单元格回填
+ * 合并区域按起始行分桶后，对数据只做一次顺序扫描：扫描到区域起始行时取左上角的值，
+ * 之后在区域覆盖的每一行写入该值，扫描过区域结束行后移出，总耗时为 O(行数 + 区域数 + 覆盖单元格数)
+ *
+ * @author JoSuper
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class MergeCellExpander {
+
+    /**
+     * 回填合并单元格，表头内的区域忽略，超出数据范围的行截断
+     *
+     * @param data               解析数据
+     * @param extraMergeInfoList 合并单元格信息
+     * @param headRowNumber      表头行数
+     * @return 填充好的解析数据
+     */
+    public static <T> List<T> expand(List<T> data, List<CellExtra> extraMergeInfoList, int headRowNumber) {
+        if (data == null || data.isEmpty() || extraMergeInfoList == null || extraMergeInfoList.isEmpty()) {
+            return data;
+        }
+        int rowCount = data.size();
+        int regionCount = extraMergeInfoList.size();
+        int[] lastRows = new int[regionCount];
+        int[] firstColumns = new int[regionCount];
+        int[] lastColumns = new int[regionCount];
+        // 按起始行分桶，链表保持原有顺序
+        int[] bucketHead = new int[rowCount];
+        int[] bucketNext = new int[regionCount];
+        Arrays.fill(bucketHead, -1);
+        for (int r = regionCount - 1; r >= 0; r--) {
+            CellExtra cellExtra = extraMergeInfoList.get(r);
+            int firstRow = cellExtra.getFirstRowIndex() - headRowNumber;
+            if (firstRow < 0 || firstRow >= rowCount) {
+                continue;
+            }
+            lastRows[r] = Math.min(cellExtra.getLastRowIndex() - headRowNumber, rowCount - 1);
+            firstColumns[r] = cellExtra.getFirstColumnIndex();
+            lastColumns[r] = cellExtra.getLastColumnIndex();
+            bucketNext[r] = bucketHead[firstRow];
+            bucketHead[firstRow] = r;
+        }
+
+        Object[] values = new Object[regionCount];
+        int[] active = new int[regionCount];
+        int activeCount = 0;
+        ExcelColumnAccessor accessor = null;
+        int rowIndex = 0;
+        for (T row : data) {
+            if (accessor == null || accessor.getType() != row.getClass()) {
+                accessor = ExcelColumnAccessor.of(row.getClass());
+            }
+            for (int r = bucketHead[rowIndex]; r != -1; r = bucketNext[r]) {
+                values[r] = getValue(accessor, row, firstColumns[r]);
+                active[activeCount++] = r;
+            }
+            for (int i = 0; i < activeCount; i++) {
+                int r = active[i];
+                for (int column = firstColumns[r]; column <= lastColumns[r]; column++) {
+                    setValue(accessor, row, column, values[r]);
+                }
+            }
+            // 移出在当前行结束的区域
+            for (int i = activeCount - 1; i >= 0; i--) {
+                int r = active[i];
+                if (lastRows[r] <= rowIndex) {
+                    active[i] = active[--activeCount];
+                    values[r] = null;
+                }
+            }
+            rowIndex++;
+        }
+        return data;
+    }
+
+    private static Object getValue(ExcelColumnAccessor accessor, Object row, int columnIndex) {
+        try {
+            return accessor.get(row, columnIndex);
+        } catch (ExcelException e) {
+            log.error("设置合并单元格的初始值异常：{}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static void setValue(ExcelColumnAccessor accessor, Object row, int columnIndex, Object value) {
+        try {
+            accessor.set(row, columnIndex, value);
+        } catch (ExcelException e) {
+            log.error("设置合并单元格的值异常：{}", e.getMessage());
+        }
+    }
+}
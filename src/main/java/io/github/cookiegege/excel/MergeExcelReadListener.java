@@ -1,40 +1,47 @@
 package io.github.cookiegege.excel;
 
-import cn.hutool.core.util.StrUtil;
 import com.alibaba.excel.context.AnalysisContext;
 import com.alibaba.excel.event.AnalysisEventListener;
 import com.alibaba.excel.metadata.CellExtra;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.stream.Collectors;
 
+@Slf4j
 @EqualsAndHashCode(callSuper = true)
 @Data
 public abstract class MergeExcelReadListener<T> extends AnalysisEventListener<T> {
 
     /**
-     * 存储每张表的原始数据
+     * 存储每张表的原始数据，按sheet读取顺序
      */
-    public HashMap<String, List<T>> dataMap = new HashMap<>();
+    public HashMap<String, List<T>> dataMap = new LinkedHashMap<>();
 
     /**
-     * 存储每个sheet合并行的数据
+     * 存储每个sheet合并行的数据，按sheet读取顺序
      */
-    public HashMap<String, List<CellExtra>> mergeDataMap = new HashMap<>();
+    public HashMap<String, List<CellExtra>> mergeDataMap = new LinkedHashMap<>();
 
     /**
      * 文件头的行数
      */
     private Integer headRowNumber = 1;
 
+    /**
+     * 导入进度统计，为空时不统计，在 {@link #addToData} 中计数
+     */
+    private ImportProgressTracker progressTracker;
+
     public MergeExcelReadListener() {
-        dataMap = new HashMap<>();
-        mergeDataMap = new HashMap<>();
+        dataMap = new LinkedHashMap<>();
+        mergeDataMap = new LinkedHashMap<>();
     }
 
     /**
@@ -48,6 +55,9 @@ public abstract class MergeExcelReadListener<T> extends AnalysisEventListener<T>
             dataMap.put(sheetName, new ArrayList<>());
         }
         dataMap.get(sheetName).add(lineData);
+        if (progressTracker != null) {
+            progressTracker.rowParsed(analysisContext);
+        }
     }
 
     /**
@@ -129,8 +139,7 @@ public abstract class MergeExcelReadListener<T> extends AnalysisEventListener<T>
      */
     @Override
     public void doAfterAllAnalysed(AnalysisContext analysisContext) {
-        String msg = StrUtil.format("{} read end!", analysisContext.readSheetHolder().getSheetName());
-        System.out.println(msg);
+        log.debug("{} read end!", analysisContext.readSheetHolder().getSheetName());
     }
 
     /**
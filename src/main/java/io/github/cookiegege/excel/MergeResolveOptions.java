@@ -0,0 +1,38 @@
+package io.github.cookiegege.excel;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * 合并单元格回填的执行配置
+ *
+ * @author JoSuper
+ */
+@Getter
+@Builder
+public class MergeResolveOptions {
+
+    /**
+     * 默认配置：使用共享的有界线程池，不限制时长
+     */
+    public static final MergeResolveOptions DEFAULT = MergeResolveOptions.builder().build();
+
+    /**
+     * 执行每个sheet回填的线程池，为空时使用共享的有界线程池
+     */
+    private Executor executor;
+
+    /**
+     * 未指定线程池时，是否为本次导入使用虚拟线程(JDK 21+)
+     */
+    private boolean virtualThreads;
+
+    /**
+     * 所有sheet回填完成的最长等待时间，为空时一直等待
+     */
+    private Duration timeout;
+
+}
@@ -0,0 +1,50 @@
+package io.github.cookiegege.excel;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 工作簿图片登记表
+ * 按图片内容的 SHA-256 去重，相同内容只在工作簿中保存一份，之后只新增引用它的锚点
+ * 每次导出创建一份，传给各个sheet的 {@link CustomImageModifyHandler}，同一个工作簿的多个sheet共用，随导出一起回收
+ * 只在写出线程中使用，不是线程安全的
+ *
+ * @author JoSuper
+ */
+public final class PictureRegistry {
+
+    /**
+     * 登记的图片所在的工作簿
+     */
+    private Workbook workbook;
+
+    /**
+     * 图片内容摘要与图片格式 -> 工作簿中的图片下标
+     */
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    /**
+     * 添加图片，内容相同的图片返回已有的下标，换了工作簿时重新登记
+     *
+     * @param workbook    工作簿
+     * @param pictureData 图片数据
+     * @param format      图片格式 如 Workbook.PICTURE_TYPE_PNG
+     * @return 工作簿中的图片下标
+     */
+    public int addPicture(Workbook workbook, byte[] pictureData, int format) {
+        if (this.workbook != workbook) {
+            this.workbook = workbook;
+            indexes.clear();
+        }
+        String key = DigestUtil.sha256Hex(pictureData) + ':' + format;
+        Integer index = indexes.get(key);
+        if (index == null) {
+            index = workbook.addPicture(pictureData, format);
+            indexes.put(key, index);
+        }
+        return index;
+    }
+}
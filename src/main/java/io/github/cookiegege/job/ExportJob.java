@@ -0,0 +1,156 @@
+package io.github.cookiegege.job;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 后台导出任务，记录状态与进度
+ *
+ * @author JoSuper
+ */
+@Getter
+public class ExportJob {
+
+    /**
+     * 任务ID
+     */
+    private final String id;
+
+    /**
+     * 下载时使用的文件名
+     */
+    private final String fileName;
+
+    /**
+     * 提交时间
+     */
+    private final long createTime = System.currentTimeMillis();
+
+    /**
+     * 开始导出时间，未开始时为0
+     */
+    private volatile long startTime;
+
+    /**
+     * 结束时间，未结束时为0
+     */
+    private volatile long finishTime;
+
+    /**
+     * 任务状态
+     */
+    private volatile ExportJobStatus status = ExportJobStatus.PENDING;
+
+    /**
+     * 预计总行数，未知时为-1
+     */
+    private volatile long totalRows = -1;
+
+    /**
+     * 已创建的sheet数
+     */
+    private volatile int sheetsStarted;
+
+    /**
+     * 已写完的sheet数
+     */
+    private volatile int sheetsDone;
+
+    /**
+     * 导出完成后的文件大小
+     */
+    private volatile long fileSize;
+
+    /**
+     * 失败原因
+     */
+    private volatile String errorMessage;
+
+    private final transient LongAdder rowsWritten = new LongAdder();
+
+    private final transient Path file;
+
+    @Getter(AccessLevel.PACKAGE)
+    private transient volatile Future<?> future;
+
+    ExportJob(String id, String fileName, Path file) {
+        this.id = id;
+        this.fileName = fileName;
+        this.file = file;
+    }
+
+    /**
+     * 已写入的数据行数(不含表头)
+     */
+    public long getRowsWritten() {
+        return rowsWritten.sum();
+    }
+
+    /**
+     * 导出进度百分比，总行数未知时返回-1，完成时返回100
+     */
+    public int getProgress() {
+        if (status == ExportJobStatus.COMPLETED) {
+            return 100;
+        }
+        long total = totalRows;
+        if (total <= 0) {
+            return -1;
+        }
+        return (int) Math.min(99, getRowsWritten() * 100 / total);
+    }
+
+    void setTotalRows(long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    void addRow() {
+        rowsWritten.increment();
+    }
+
+    synchronized void sheetStarted() {
+        if (sheetsStarted > sheetsDone) {
+            sheetsDone++;
+        }
+        sheetsStarted++;
+    }
+
+    synchronized void allSheetsDone() {
+        sheetsDone = sheetsStarted;
+    }
+
+    /**
+     * 设置后台任务，提交后、设置前已被取消时在这里中断
+     * 先写 future 再读 status，与取消时先写 status 再读 future 配合，至少有一方会中断任务
+     */
+    void setFuture(Future<?> future) {
+        this.future = future;
+        if (status == ExportJobStatus.CANCELLED) {
+            future.cancel(true);
+        }
+    }
+
+    synchronized boolean start() {
+        if (status != ExportJobStatus.PENDING) {
+            return false;
+        }
+        startTime = System.currentTimeMillis();
+        status = ExportJobStatus.RUNNING;
+        return true;
+    }
+
+    synchronized boolean finish(ExportJobStatus finalStatus, long fileSize, String errorMessage) {
+        if (status.isFinished()) {
+            return false;
+        }
+        this.fileSize = fileSize;
+        this.errorMessage = errorMessage;
+        this.finishTime = System.currentTimeMillis();
+        this.status = finalStatus;
+        return true;
+    }
+}
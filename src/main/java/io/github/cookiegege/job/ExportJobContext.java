@@ -0,0 +1,67 @@
+package io.github.cookiegege.job;
+
+import com.alibaba.excel.write.handler.WriteHandler;
+
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 后台导出任务上下文
+ * 导出时将 {@link #getHandlers()} 传入 EasyExcelUtil 中接收 WriteHandler 的方法即可统计进度
+ *
+ * @author JoSuper
+ */
+public class ExportJobContext {
+
+    private final ExportJob job;
+
+    private final OutputStream outputStream;
+
+    private final ExportProgressHandler progressHandler;
+
+    ExportJobContext(ExportJob job, OutputStream outputStream) {
+        this.job = job;
+        this.outputStream = outputStream;
+        this.progressHandler = new ExportProgressHandler(job);
+    }
+
+    /**
+     * 导出文件的输出流，由任务管理器负责关闭
+     */
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    /**
+     * 统计进度的处理器
+     */
+    public ExportProgressHandler getProgressHandler() {
+        return progressHandler;
+    }
+
+    /**
+     * 统计进度的处理器列表
+     */
+    public List<WriteHandler> getHandlers() {
+        return Collections.singletonList(progressHandler);
+    }
+
+    /**
+     * 设置预计总行数，用于计算进度百分比
+     */
+    public void setTotalRows(long totalRows) {
+        job.setTotalRows(totalRows);
+    }
+
+    /**
+     * 是否已被取消，长时间准备数据时可以据此提前结束
+     */
+    public boolean isCancelled() {
+        return job.getStatus() == ExportJobStatus.CANCELLED || Thread.currentThread().isInterrupted();
+    }
+
+    public ExportJob getJob() {
+        return job;
+    }
+}
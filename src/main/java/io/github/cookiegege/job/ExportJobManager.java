@@ -0,0 +1,240 @@
+package io.github.cookiegege.job;
+
+import cn.hutool.core.util.IdUtil;
+import io.github.cookiegege.EasyExcelUtil;
+import io.github.cookiegege.exception.ExcelException;
+import io.github.cookiegege.util.ExcelExecutors;
+import io.github.cookiegege.util.FileUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 后台导出任务管理器
+ * 导出在后台线程中写入本地临时文件，完成后通过 {@link #download} 下载，支持 Range 断点续传
+ * <pre>
+ * ExportJob job = manager.submit("订单", ctx -&gt; EasyExcelUtil.exportExcel(list, "订单", Order.class, ctx.getOutputStream(), ctx.getHandlers()));
+ * // 轮询 manager.getJob(job.getId()) 直到 COMPLETED
+ * manager.download(job.getId(), request, response);
+ * </pre>
+ *
+ * @author JoSuper
+ */
+@Slf4j
+public class ExportJobManager implements Closeable {
+
+    private static final String CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet;charset=UTF-8";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ExportJobOptions options;
+
+    private final Path directory;
+
+    private final ExecutorService executor;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    public ExportJobManager() {
+        this(ExportJobOptions.DEFAULT);
+    }
+
+    public ExportJobManager(ExportJobOptions options) {
+        this.options = options;
+        this.directory = options.getDirectory() != null
+                ? options.getDirectory()
+                : Paths.get(System.getProperty("java.io.tmpdir"), "easyexcel-export");
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            ExcelException exception = new ExcelException("创建导出目录失败: {}", directory);
+            exception.initCause(e);
+            throw exception;
+        }
+        this.executor = ExcelExecutors.newBoundedExecutor("easyexcel-export-",
+                options.getMaxConcurrentJobs(), options.getMaxQueuedJobs(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 提交后台导出任务
+     *
+     * @param fileName 下载文件名(不含后缀)
+     * @param task     导出逻辑
+     * @return 导出任务
+     */
+    public ExportJob submit(String fileName, ExportTask task) {
+        purgeExpired();
+        String id = IdUtil.fastSimpleUUID();
+        ExportJob job = new ExportJob(id, EasyExcelUtil.encodingFilename(fileName), directory.resolve(id + ".xlsx"));
+        jobs.put(id, job);
+        try {
+            Future<?> future = executor.submit(() -> run(job, task));
+            job.setFuture(future);
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            throw new ExcelException("导出任务过多，请稍后再试");
+        }
+        return job;
+    }
+
+    /**
+     * 获取导出任务
+     *
+     * @param id 任务ID
+     * @return 导出任务，不存在或已过期时返回null
+     */
+    public ExportJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * 获取所有未过期的导出任务
+     */
+    public Collection<ExportJob> getJobs() {
+        purgeExpired();
+        return Collections.unmodifiableCollection(new ArrayList<>(jobs.values()));
+    }
+
+    /**
+     * 取消未结束的导出任务
+     *
+     * @param id 任务ID
+     * @return 是否取消成功
+     */
+    public boolean cancel(String id) {
+        ExportJob job = jobs.get(id);
+        if (job == null || !job.finish(ExportJobStatus.CANCELLED, 0, null)) {
+            return false;
+        }
+        Future<?> future = job.getFuture();
+        if (future != null) {
+            future.cancel(true);
+        }
+        return true;
+    }
+
+    /**
+     * 移除导出任务并删除文件，未结束的任务会先取消
+     *
+     * @param id 任务ID
+     */
+    public void remove(String id) {
+        cancel(id);
+        ExportJob job = jobs.remove(id);
+        if (job != null) {
+            deleteQuietly(job.getFile());
+        }
+    }
+
+    /**
+     * 下载已完成的导出文件，支持 Range 断点续传
+     *
+     * @param id       任务ID
+     * @param request  请求对象
+     * @param response 响应对象
+     */
+    public void download(String id, HttpServletRequest request, HttpServletResponse response) {
+        ExportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ExcelException("导出任务不存在或已过期");
+        }
+        if (job.getStatus() != ExportJobStatus.COMPLETED) {
+            throw new ExcelException("导出任务未完成，当前状态: {}", job.getStatus());
+        }
+        try {
+            FileUtils.downloadFile(job.getFile().toFile(), job.getFileName(), CONTENT_TYPE, request, response);
+        } catch (IOException e) {
+            ExcelException exception = new ExcelException("下载导出文件异常");
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
+    /**
+     * 清理超过保留时长的已结束任务及其文件
+     */
+    public void purgeExpired() {
+        if (options.getRetention() == null) {
+            return;
+        }
+        long expireBefore = System.currentTimeMillis() - options.getRetention().toMillis();
+        for (ExportJob job : jobs.values()) {
+            if (job.getStatus().isFinished() && job.getFinishTime() < expireBefore) {
+                jobs.remove(job.getId());
+                deleteQuietly(job.getFile());
+            }
+        }
+    }
+
+    /**
+     * 停止线程池，取消未完成的任务，已完成的文件保留在磁盘上
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        for (ExportJob job : jobs.values()) {
+            job.finish(ExportJobStatus.CANCELLED, 0, null);
+        }
+    }
+
+    private void run(ExportJob job, ExportTask task) {
+        if (!job.start()) {
+            return;
+        }
+        Path part = directory.resolve(job.getId() + ".part");
+        try {
+            try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(part), BUFFER_SIZE)) {
+                task.export(new ExportJobContext(job, os));
+            }
+            if (job.getStatus() == ExportJobStatus.CANCELLED) {
+                deleteQuietly(part);
+                return;
+            }
+            moveFile(part, job.getFile());
+            job.allSheetsDone();
+            if (!job.finish(ExportJobStatus.COMPLETED, Files.size(job.getFile()), null)) {
+                deleteQuietly(job.getFile());
+            }
+        } catch (Throwable e) {
+            deleteQuietly(part);
+            if (job.finish(ExportJobStatus.FAILED, 0, e.getMessage())) {
+                log.error("导出任务[{}]失败", job.getId(), e);
+            }
+        }
+    }
+
+    private static void moveFile(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除导出文件失败: {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.cookiegege.job;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 后台导出任务管理器配置
+ *
+ * @author JoSuper
+ */
+@Getter
+@Builder
+public class ExportJobOptions {
+
+    /**
+     * 默认配置：临时目录下的 easyexcel-export，同时导出2个，最多排队16个，保留1小时
+     */
+    public static final ExportJobOptions DEFAULT = ExportJobOptions.builder().build();
+
+    /**
+     * 导出文件存放目录，为空时使用系统临时目录下的 easyexcel-export
+     */
+    private Path directory;
+
+    /**
+     * 同时执行的导出任务数
+     */
+    @Builder.Default
+    private int maxConcurrentJobs = 2;
+
+    /**
+     * 最多排队的导出任务数，超出时拒绝提交
+     */
+    @Builder.Default
+    private int maxQueuedJobs = 16;
+
+    /**
+     * 已结束任务及其文件的保留时长，为空时一直保留
+     */
+    @Builder.Default
+    private Duration retention = Duration.ofHours(1);
+
+}
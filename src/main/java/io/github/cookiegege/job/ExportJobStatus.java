@@ -0,0 +1,41 @@
+package io.github.cookiegege.job;
+
+/**
+ * 后台导出任务状态
+ *
+ * @author JoSuper
+ */
+public enum ExportJobStatus {
+
+    /**
+     * 排队中
+     */
+    PENDING,
+
+    /**
+     * 导出中
+     */
+    RUNNING,
+
+    /**
+     * 已完成，可以下载
+     */
+    COMPLETED,
+
+    /**
+     * 导出失败
+     */
+    FAILED,
+
+    /**
+     * 已取消
+     */
+    CANCELLED;
+
+    /**
+     * 是否已结束
+     */
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
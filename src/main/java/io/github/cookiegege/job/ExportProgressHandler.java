@@ -0,0 +1,32 @@
+package io.github.cookiegege.job;
+
+import com.alibaba.excel.write.handler.RowWriteHandler;
+import com.alibaba.excel.write.handler.SheetWriteHandler;
+import com.alibaba.excel.write.handler.context.RowWriteHandlerContext;
+import com.alibaba.excel.write.handler.context.SheetWriteHandlerContext;
+
+/**
+ * 统计后台导出任务的写入行数和sheet数
+ *
+ * @author JoSuper
+ */
+public class ExportProgressHandler implements RowWriteHandler, SheetWriteHandler {
+
+    private final ExportJob job;
+
+    ExportProgressHandler(ExportJob job) {
+        this.job = job;
+    }
+
+    @Override
+    public void afterSheetCreate(SheetWriteHandlerContext context) {
+        job.sheetStarted();
+    }
+
+    @Override
+    public void afterRowDispose(RowWriteHandlerContext context) {
+        if (!Boolean.TRUE.equals(context.getHead())) {
+            job.addRow();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.cookiegege.job;
+
+/**
+ * 后台导出任务，将 Excel 写入 {@link ExportJobContext#getOutputStream()}
+ *
+ * @author JoSuper
+ */
+@FunctionalInterface
+public interface ExportTask {
+
+    /**
+     * 执行导出
+     *
+     * @param context 任务上下文
+     */
+    void export(ExportJobContext context) throws Exception;
+}
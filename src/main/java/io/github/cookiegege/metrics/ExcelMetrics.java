@@ -0,0 +1,117 @@
+package io.github.cookiegege.metrics;
+
+/**
+ * 导入导出指标 SPI，默认不记录
+ * 通过 {@link ExcelMetricsRegistry#setMetrics(ExcelMetrics)} 指定实现，
+ * 使用 Micrometer 时可以直接使用 {@link MicrometerExcelMetrics}
+ * <p>
+ * 每次导入导出结束时调用一次，不会按行、按单元格调用，实现中可以直接注册或查找指标
+ *
+ * @author JoSuper
+ */
+public interface ExcelMetrics {
+
+    /**
+     * 不记录任何指标
+     */
+    ExcelMetrics NOOP = new ExcelMetrics() {
+    };
+
+    /**
+     * 导出
+     */
+    String EXPORT = "export";
+
+    /**
+     * 导入
+     */
+    String IMPORT = "import";
+
+    /**
+     * 写出阶段：创建工作簿到所有行写完(包含转换、图片、合并)
+     */
+    String STAGE_WRITE = "write";
+
+    /**
+     * 刷盘阶段：所有行写完到输出结束(SXSSF 临时文件合并、zip 压缩)
+     */
+    String STAGE_FLUSH = "flush";
+
+    /**
+     * 单元格值转换(包括内置和自定义转换器)
+     */
+    String STAGE_CONVERT = "convert";
+
+    /**
+     * 单元格图片插入
+     */
+    String STAGE_IMAGE = "image";
+
+    /**
+     * 图片预处理(加载、缩放)
+     */
+    String STAGE_IMAGE_PREPARE = "image_prepare";
+
+    /**
+     * 合并计划计算
+     */
+    String STAGE_MERGE_PLAN = "merge_plan";
+
+    /**
+     * 解析(包括转换和监听器处理)
+     */
+    String STAGE_READ = "read";
+
+    /**
+     * Bean Validation 校验，并行校验时为各线程累计耗时
+     */
+    String STAGE_VALIDATE = "validate";
+
+    /**
+     * 一次导入导出完成
+     *
+     * @param operation {@link #EXPORT} 或 {@link #IMPORT}
+     * @param rows      写出或读取的数据行数(不含表头)
+     * @param nanos     总耗时(纳秒)
+     * @param success   是否成功
+     */
+    default void recordOperation(String operation, long rows, long nanos, boolean success) {
+    }
+
+    /**
+     * 各阶段耗时，同一阶段在一次操作中累计后记录一次
+     *
+     * @param operation 操作
+     * @param stage     阶段 如 {@link #STAGE_CONVERT}
+     * @param nanos     耗时(纳秒)
+     */
+    default void recordStage(String operation, String stage, long nanos) {
+    }
+
+    /**
+     * 导出写出的字节数
+     *
+     * @param operation 操作
+     * @param bytes     字节数
+     */
+    default void recordBytes(String operation, long bytes) {
+    }
+
+    /**
+     * 导出的合并区域数量
+     *
+     * @param operation 操作
+     * @param count     合并区域数量
+     */
+    default void recordMergedRegions(String operation, long count) {
+    }
+
+    /**
+     * 同一时刻内存中保留的最大数据行数
+     *
+     * @param operation 操作
+     * @param rows      行数
+     */
+    default void recordPeakBufferedRows(String operation, long rows) {
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.cookiegege.metrics;
+
+import com.alibaba.excel.write.handler.CellWriteHandler;
+import com.alibaba.excel.write.handler.RowWriteHandler;
+import com.alibaba.excel.write.handler.WorkbookWriteHandler;
+import com.alibaba.excel.write.handler.context.CellWriteHandlerContext;
+import com.alibaba.excel.write.handler.context.RowWriteHandlerContext;
+import com.alibaba.excel.write.handler.context.WorkbookWriteHandlerContext;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * 导出指标处理器，在写出线程中计数，工作簿写完时汇总到 {@link ExcelOperation}
+ * 最后执行，保证流式合并处理器补齐的合并区域也被统计
+ *
+ * @author JoSuper
+ */
+class ExcelMetricsHandler implements WorkbookWriteHandler, RowWriteHandler, CellWriteHandler {
+
+    private final ExcelOperation operation;
+
+    private long workbookStart;
+
+    private long rows;
+
+    private long convertNanos;
+
+    private long cellStart;
+
+    ExcelMetricsHandler(ExcelOperation operation) {
+        this.operation = operation;
+    }
+
+    @Override
+    public int order() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void beforeWorkbookCreate() {
+        workbookStart = System.nanoTime();
+    }
+
+    @Override
+    public void afterRowDispose(RowWriteHandlerContext context) {
+        if (!Boolean.TRUE.equals(context.getHead())) {
+            rows++;
+        }
+    }
+
+    @Override
+    public void afterCellCreate(CellWriteHandlerContext context) {
+        if (!Boolean.TRUE.equals(context.getHead())) {
+            cellStart = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void afterCellDataConverted(CellWriteHandlerContext context) {
+        if (cellStart != 0) {
+            convertNanos += System.nanoTime() - cellStart;
+            cellStart = 0;
+        }
+    }
+
+    @Override
+    public void afterWorkbookDispose(WorkbookWriteHandlerContext context) {
+        long now = System.nanoTime();
+        if (workbookStart != 0) {
+            operation.addStage(ExcelMetrics.STAGE_WRITE, now - workbookStart);
+        }
+        operation.addStage(ExcelMetrics.STAGE_CONVERT, convertNanos);
+        operation.addRows(rows);
+        Workbook workbook = context.getWriteWorkbookHolder().getWorkbook();
+        if (workbook != null) {
+            long regions = 0;
+            for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+                regions += workbook.getSheetAt(i).getNumMergedRegions();
+            }
+            operation.addMergedRegions(regions);
+        }
+        operation.markFlushStart();
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.cookiegege.metrics;
+
+import cn.hutool.extra.spring.SpringUtil;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * 指标实现的注册入口
+ * 指标实现在第一次导入导出时获取一次，查找顺序：
+ * {@link #setMetrics(ExcelMetrics)} 指定的实现、SPI 注册的实现、Spring 容器中的 ExcelMetrics，都没有时不记录
+ *
+ * @author JoSuper
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ExcelMetricsRegistry {
+
+    private static volatile ExcelMetrics metrics;
+
+    /**
+     * 指定指标实现
+     *
+     * @param excelMetrics 指标实现，为空时恢复默认查找顺序
+     */
+    public static synchronized void setMetrics(ExcelMetrics excelMetrics) {
+        metrics = excelMetrics;
+    }
+
+    /**
+     * 获取指标实现，第一次调用时按查找顺序获取
+     *
+     * @return 指标实现，没有时返回 {@link ExcelMetrics#NOOP}
+     */
+    public static ExcelMetrics getMetrics() {
+        ExcelMetrics current = metrics;
+        if (current == null) {
+            synchronized (ExcelMetricsRegistry.class) {
+                current = metrics;
+                if (current == null) {
+                    current = resolveMetrics();
+                    metrics = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 是否记录指标，不记录时导入导出不做任何计时和计数
+     */
+    public static boolean isEnabled() {
+        return getMetrics() != ExcelMetrics.NOOP;
+    }
+
+    private static ExcelMetrics resolveMetrics() {
+        Iterator<ExcelMetrics> providers = ServiceLoader.load(ExcelMetrics.class).iterator();
+        if (providers.hasNext()) {
+            return providers.next();
+        }
+        if (SpringUtil.getApplicationContext() != null) {
+            try {
+                return SpringUtil.getBean(ExcelMetrics.class);
+            } catch (RuntimeException e) {
+                log.debug("Spring 容器中没有 ExcelMetrics，不记录导入导出指标: {}", e.getMessage());
+            }
+        }
+        return ExcelMetrics.NOOP;
+    }
+}
@@ -0,0 +1,251 @@
+package io.github.cookiegege.metrics;
+
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.read.builder.ExcelReaderBuilder;
+import com.alibaba.excel.read.listener.ReadListener;
+import com.alibaba.excel.write.builder.ExcelWriterBuilder;
+import io.github.cookiegege.util.CountingOutputStream;
+
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一次导入导出的指标记录，结束时汇总交给 {@link ExcelMetrics}
+ * 通过 {@link #start(String)} 开始，与当前线程绑定，嵌套调用时复用外层的记录，只在最外层结束时汇总一次
+ * 未启用指标时返回不做任何事情的实例
+ * <pre>
+ * try (ExcelOperation operation = ExcelOperation.start(ExcelMetrics.EXPORT)) {
+ *     operation.instrument(EasyExcel.write(operation.wrap(os), clazz)).sheet().doWrite(list);
+ *     operation.complete();
+ * }
+ * </pre>
+ *
+ * @author JoSuper
+ */
+public class ExcelOperation implements AutoCloseable {
+
+    private static final ThreadLocal<ExcelOperation> CURRENT = new ThreadLocal<>();
+
+    private static final ExcelOperation DISABLED = new ExcelOperation(null, ExcelMetrics.NOOP);
+
+    private final String operation;
+
+    private final ExcelMetrics metrics;
+
+    private final boolean enabled;
+
+    private final long startNanos = System.nanoTime();
+
+    private final LongAdder rows = new LongAdder();
+
+    private final Map<String, LongAdder> stages = new ConcurrentHashMap<>();
+
+    private final AtomicLong peakBufferedRows = new AtomicLong();
+
+    private final LongAdder mergedRegions = new LongAdder();
+
+    private CountingOutputStream output;
+
+    /**
+     * 所有行写完的时间，为0时没有写出
+     */
+    private volatile long flushStartNanos;
+
+    private int depth = 1;
+
+    private volatile boolean completed;
+
+    private ExcelOperation(String operation, ExcelMetrics metrics) {
+        this.operation = operation;
+        this.metrics = metrics;
+        this.enabled = metrics != ExcelMetrics.NOOP;
+    }
+
+    /**
+     * 开始记录，当前线程已有记录时复用
+     *
+     * @param operation {@link ExcelMetrics#EXPORT} 或 {@link ExcelMetrics#IMPORT}
+     * @return 记录，未启用指标时返回不做任何事情的实例
+     */
+    public static ExcelOperation start(String operation) {
+        ExcelOperation current = CURRENT.get();
+        if (current != null) {
+            current.depth++;
+            return current;
+        }
+        ExcelMetrics metrics = ExcelMetricsRegistry.getMetrics();
+        if (metrics == ExcelMetrics.NOOP) {
+            return DISABLED;
+        }
+        current = new ExcelOperation(operation, metrics);
+        CURRENT.set(current);
+        return current;
+    }
+
+    /**
+     * 当前线程的记录，用于处理器、监听器中记录阶段耗时
+     * 需要在其他线程中记录时，先在当前线程获取再传递过去
+     *
+     * @return 记录，没有时返回不做任何事情的实例
+     */
+    public static ExcelOperation current() {
+        ExcelOperation current = CURRENT.get();
+        return current == null ? DISABLED : current;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 包装输出流以统计写出的字节数，一次操作只包装一次
+     */
+    public OutputStream wrap(OutputStream os) {
+        if (!enabled || output != null || os == null) {
+            return os;
+        }
+        output = new CountingOutputStream(os);
+        return output;
+    }
+
+    /**
+     * 注册统计行数、转换耗时、合并区域的处理器
+     */
+    public ExcelWriterBuilder instrument(ExcelWriterBuilder builder) {
+        if (enabled) {
+            builder.registerWriteHandler(new ExcelMetricsHandler(this));
+        }
+        return builder;
+    }
+
+    /**
+     * 注册统计读取行数的监听器
+     */
+    public ExcelReaderBuilder instrument(ExcelReaderBuilder builder) {
+        if (enabled) {
+            builder.registerReadListener(new RowCountListener(rows));
+        }
+        return builder;
+    }
+
+    /**
+     * 开始一个阶段的计时
+     *
+     * @return 开始时间，未启用时返回0
+     */
+    public long startStage() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * 结束一个阶段的计时并累计，可以在任意线程调用
+     *
+     * @param stage      阶段
+     * @param startNanos {@link #startStage()} 的返回值
+     */
+    public void endStage(String stage, long startNanos) {
+        if (enabled) {
+            addStage(stage, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * 累计阶段耗时
+     */
+    public void addStage(String stage, long nanos) {
+        if (enabled) {
+            stages.computeIfAbsent(stage, k -> new LongAdder()).add(nanos);
+        }
+    }
+
+    public void addRows(long count) {
+        if (enabled) {
+            rows.add(count);
+        }
+    }
+
+    public void addMergedRegions(long count) {
+        if (enabled) {
+            mergedRegions.add(count);
+        }
+    }
+
+    /**
+     * 记录当前内存中保留的数据行数，结束时汇总最大值
+     */
+    public void bufferedRows(long count) {
+        if (enabled && count > peakBufferedRows.get()) {
+            peakBufferedRows.accumulateAndGet(count, Math::max);
+        }
+    }
+
+    /**
+     * 标记操作成功，没有标记就结束的操作记为失败
+     */
+    public void complete() {
+        completed = true;
+    }
+
+    /**
+     * 结束记录，只在最外层汇总
+     */
+    @Override
+    public void close() {
+        if (!enabled || --depth > 0) {
+            return;
+        }
+        CURRENT.remove();
+        long nanos = System.nanoTime() - startNanos;
+        if (flushStartNanos != 0) {
+            addStage(ExcelMetrics.STAGE_FLUSH, System.nanoTime() - flushStartNanos);
+        }
+        metrics.recordOperation(operation, rows.sum(), nanos, completed);
+        for (Map.Entry<String, LongAdder> entry : stages.entrySet()) {
+            metrics.recordStage(operation, entry.getKey(), entry.getValue().sum());
+        }
+        if (output != null) {
+            metrics.recordBytes(operation, output.getCount());
+        }
+        if (ExcelMetrics.EXPORT.equals(operation)) {
+            metrics.recordMergedRegions(operation, mergedRegions.sum());
+        }
+        if (peakBufferedRows.get() > 0) {
+            metrics.recordPeakBufferedRows(operation, peakBufferedRows.get());
+        }
+    }
+
+    /**
+     * 所有行写完，之后到结束的时间记为 {@link ExcelMetrics#STAGE_FLUSH}
+     */
+    void markFlushStart() {
+        flushStartNanos = System.nanoTime();
+    }
+
+    /**
+     * 统计读取的数据行数，不处理数据和异常
+     */
+    private static class RowCountListener implements ReadListener<Object> {
+
+        private final LongAdder rows;
+
+        RowCountListener(LongAdder rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public void onException(Exception exception, AnalysisContext context) {
+        }
+
+        @Override
+        public void invoke(Object data, AnalysisContext context) {
+            rows.increment();
+        }
+
+        @Override
+        public void doAfterAllAnalysed(AnalysisContext context) {
+        }
+    }
+}
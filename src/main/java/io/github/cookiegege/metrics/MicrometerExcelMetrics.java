@@ -0,0 +1,89 @@
+package io.github.cookiegege.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer 指标实现，需要引入 micrometer-core
+ * <ul>
+ *     <li>easyexcel.operation：耗时，标签 operation、outcome</li>
+ *     <li>easyexcel.rows：行数</li>
+ *     <li>easyexcel.rows.throughput：每秒行数</li>
+ *     <li>easyexcel.stage：阶段耗时，标签 operation、stage</li>
+ *     <li>easyexcel.bytes：写出字节数</li>
+ *     <li>easyexcel.merged.regions：合并区域数量</li>
+ *     <li>easyexcel.buffered.rows：内存中保留的最大行数</li>
+ * </ul>
+ * <pre>
+ * ExcelMetricsRegistry.setMetrics(new MicrometerExcelMetrics(meterRegistry));
+ * </pre>
+ *
+ * @author JoSuper
+ */
+public class MicrometerExcelMetrics implements ExcelMetrics {
+
+    private final MeterRegistry registry;
+
+    public MicrometerExcelMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void recordOperation(String operation, long rows, long nanos, boolean success) {
+        Timer.builder("easyexcel.operation")
+                .tag("operation", operation)
+                .tag("outcome", success ? "success" : "failure")
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        Counter.builder("easyexcel.rows")
+                .tag("operation", operation)
+                .register(registry)
+                .increment(rows);
+        if (success && rows > 0 && nanos > 0) {
+            DistributionSummary.builder("easyexcel.rows.throughput")
+                    .baseUnit("rows/s")
+                    .tag("operation", operation)
+                    .register(registry)
+                    .record(rows * 1e9 / nanos);
+        }
+    }
+
+    @Override
+    public void recordStage(String operation, String stage, long nanos) {
+        Timer.builder("easyexcel.stage")
+                .tag("operation", operation)
+                .tag("stage", stage)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordBytes(String operation, long bytes) {
+        DistributionSummary.builder("easyexcel.bytes")
+                .baseUnit("bytes")
+                .tag("operation", operation)
+                .register(registry)
+                .record(bytes);
+    }
+
+    @Override
+    public void recordMergedRegions(String operation, long count) {
+        DistributionSummary.builder("easyexcel.merged.regions")
+                .tag("operation", operation)
+                .register(registry)
+                .record(count);
+    }
+
+    @Override
+    public void recordPeakBufferedRows(String operation, long rows) {
+        DistributionSummary.builder("easyexcel.buffered.rows")
+                .baseUnit("rows")
+                .tag("operation", operation)
+                .register(registry)
+                .record(rows);
+    }
+}
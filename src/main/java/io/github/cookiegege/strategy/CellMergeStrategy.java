@@ -3,6 +3,8 @@ package io.github.cookiegege.strategy;
 import com.alibaba.excel.metadata.Head;
 import com.alibaba.excel.write.merge.AbstractMergeStrategy;
 import io.github.cookiegege.annotation.CellMerge;
+import io.github.cookiegege.metrics.ExcelMetrics;
+import io.github.cookiegege.metrics.ExcelOperation;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.SneakyThrows;
@@ -14,47 +16,130 @@ import org.apache.poi.ss.util.CellRangeAddress;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * 列值重复合并策略
+ * 合并计划在第一次回调时计算一次(也可以提前调用 {@link #prepare()})，之后随着行写出逐步输出合并区域
  *
  * @author Lion Li
  */
-@AllArgsConstructor
 @Slf4j
 public class CellMergeStrategy extends AbstractMergeStrategy {
 
-    private List<?> list;
-    private boolean hasTitle;
+    private final List<?> list;
+    private final boolean hasTitle;
+
+    /**
+     * 合并计划，行号相对于第一行数据，按结束行排序
+     */
+    private volatile List<CellRangeAddress> plan;
+
+    /**
+     * 下一个待输出的合并区域
+     */
+    private int next;
+
+    /**
+     * 第一行数据所在的行号，第一次回调时确定
+     */
+    private int rowOffset = -1;
+
+    /**
+     * 创建时所在导出的指标记录，合并计划可能在其他线程中计算
+     */
+    private final ExcelOperation operation = ExcelOperation.current();
+
+    public CellMergeStrategy(List<?> list, boolean hasTitle) {
+        this.list = list;
+        this.hasTitle = hasTitle;
+    }
 
     @Override
     protected void merge(Sheet sheet, Cell cell, Head head, Integer relativeRowIndex) {
-        int headSize = head.getHeadNameList().size();
-        List<CellRangeAddress> cellList = handleRaw(list, hasTitle, headSize);
-        List<CellRangeAddress> colCellList = handleCol(list, hasTitle, headSize);
-        cellList.addAll(colCellList);
-        // judge the list is not null
-        if (CollectionUtils.isNotEmpty(cellList)) {
-            // the judge is necessary
-            if (cell.getRowIndex() == headSize && cell.getColumnIndex() == 0) {
-                for (CellRangeAddress item : cellList) {
-                    sheet.addMergedRegion(item);
+        if (rowOffset < 0) {
+            prepare();
+            rowOffset = hasTitle ? head.getHeadNameList().size() : 0;
+        }
+        List<CellRangeAddress> cellList = plan;
+        // 结束行已经写出的区域都可以合并了
+        int dataRowIndex = cell.getRowIndex() - rowOffset;
+        while (next < cellList.size() && cellList.get(next).getLastRow() <= dataRowIndex) {
+            CellRangeAddress item = cellList.get(next++);
+            sheet.addMergedRegionUnsafe(new CellRangeAddress(item.getFirstRow() + rowOffset, item.getLastRow() + rowOffset,
+                    item.getFirstColumn(), item.getLastColumn()));
+        }
+    }
+
+    /**
+     * 计算合并计划，只会计算一次，可以在写出前提前调用
+     *
+     * @return 合并区域数量
+     */
+    public int prepare() {
+        List<CellRangeAddress> cellList = plan;
+        if (cellList == null) {
+            synchronized (this) {
+                cellList = plan;
+                if (cellList == null) {
+                    long start = operation.startStage();
+                    cellList = buildPlan(list);
+                    operation.endStage(ExcelMetrics.STAGE_MERGE_PLAN, start);
+                    plan = cellList;
                 }
             }
         }
+        return cellList.size();
     }
 
-    @SneakyThrows
-    private static List<CellRangeAddress> handleCol(List<?> list, boolean hasTitle, Integer headSize) {
-        List<CellRangeAddress> cellList = new ArrayList<>();
+    private static List<CellRangeAddress> buildPlan(List<?> list) {
         if (CollectionUtils.isEmpty(list)) {
-            return cellList;
+            return Collections.emptyList();
+        }
+        List<CellRangeAddress> rawList = handleRaw(list);
+        List<CellRangeAddress> colList = handleCol(list);
+        List<CellRangeAddress> cellList = new ArrayList<>(rawList.size() + colList.size());
+        cellList.addAll(rawList);
+        if (!colList.isEmpty()) {
+            // 纵向区域按列索引，同一列的区域互不重叠
+            Map<Integer, TreeMap<Integer, Integer>> rawByColumn = new HashMap<>();
+            for (CellRangeAddress raw : rawList) {
+                rawByColumn.computeIfAbsent(raw.getFirstColumn(), k -> new TreeMap<>()).put(raw.getFirstRow(), raw.getLastRow());
+            }
+            for (CellRangeAddress item : colList) {
+                if (overlaps(rawByColumn, item)) {
+                    log.debug("横向合并区域{}与纵向合并区域重叠，忽略", item.formatAsString());
+                    continue;
+                }
+                cellList.add(item);
+            }
+        }
+        cellList.sort(Comparator.comparingInt(CellRangeAddress::getLastRow));
+        return cellList;
+    }
+
+    /**
+     * 横向区域只有一行，逐列查找是否落在纵向区域内
+     */
+    private static boolean overlaps(Map<Integer, TreeMap<Integer, Integer>> rawByColumn, CellRangeAddress item) {
+        int row = item.getFirstRow();
+        for (int column = item.getFirstColumn(); column <= item.getLastColumn(); column++) {
+            TreeMap<Integer, Integer> rows = rawByColumn.get(column);
+            if (rows == null) {
+                continue;
+            }
+            Map.Entry<Integer, Integer> entry = rows.floorEntry(row);
+            if (entry != null && entry.getValue() >= row) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    @SneakyThrows
+    private static List<CellRangeAddress> handleCol(List<?> list) {
+        List<CellRangeAddress> cellList = new ArrayList<>();
         Class<?> clazz = list.get(0).getClass();
         Field[] fields = clazz.getDeclaredFields();
         // 有注解的字段
@@ -67,22 +152,25 @@ public class CellMergeStrategy extends AbstractMergeStrategy {
             }
         }
         List<Integer> sortIndexList = fieldHashMap.keySet().stream().sorted().collect(Collectors.toList());
+        if (sortIndexList.isEmpty()) {
+            return cellList;
+        }
+        CellMerge[] merges = new CellMerge[sortIndexList.size()];
+        Method[] readMethods = new Method[sortIndexList.size()];
+        for (int j = 0; j < sortIndexList.size(); j++) {
+            Field field = fieldHashMap.get(sortIndexList.get(j));
+            merges[j] = field.getAnnotation(CellMerge.class);
+            readMethods[j] = getReadMethod(clazz, field);
+        }
 
-        int rowIndex = hasTitle ? headSize : 0;
         Map<Object, RepeatCell> map = new HashMap<>();
         // 生成两两合并单元格
         for (int i = 0; i < list.size(); i++) {
+            Object rowData = list.get(i);
             for (int j = 0; j < sortIndexList.size(); j++) {
-                Integer index = sortIndexList.get(j);
-                Field field = fieldHashMap.get(index);
-                CellMerge cm = field.getAnnotation(CellMerge.class);
-
-                String name = field.getName();
-                String methodName = "get" + name.substring(0, 1).toUpperCase() + name.substring(1);
-                Method readMethod = clazz.getMethod(methodName);
-                Object rowData = list.get(i);
-                Object val = readMethod.invoke(rowData);
-                int colNum = index;
+                CellMerge cm = merges[j];
+                Object val = readMethods[j].invoke(rowData);
+                int colNum = sortIndexList.get(j);
 
                 if (!cm.mergeCol()) {
                     // 需要判断是否需要合并到这里
@@ -91,12 +179,12 @@ public class CellMergeStrategy extends AbstractMergeStrategy {
                         Object cellValue = repeatCell.getValue();
                         if (!cellValue.equals(val)) {
                             if (j - repeatCell.getCurrent() > 1) {
-                                cellList.add(new CellRangeAddress(i + rowIndex, i + rowIndex, repeatCell.getCurrent(), j));
+                                cellList.add(new CellRangeAddress(i, i, repeatCell.getCurrent(), j));
                             }
                             map.put(rowData, new RepeatCell(val, colNum));
                         } else if (j == sortIndexList.size() - 1) {
                             if (j > repeatCell.getCurrent()) {
-                                cellList.add(new CellRangeAddress(i + rowIndex, i + rowIndex, repeatCell.getCurrent(), j));
+                                cellList.add(new CellRangeAddress(i, i, repeatCell.getCurrent(), j));
                             }
                         }
                     }
@@ -110,12 +198,12 @@ public class CellMergeStrategy extends AbstractMergeStrategy {
                     Object cellValue = repeatCell.getValue();
                     if (!cellValue.equals(val)) {
                         if (j - repeatCell.getCurrent() > 1) {
-                            cellList.add(new CellRangeAddress(i + rowIndex, i + rowIndex, repeatCell.getCurrent(), j));
+                            cellList.add(new CellRangeAddress(i, i, repeatCell.getCurrent(), j));
                         }
                         map.put(rowData, new RepeatCell(val, colNum));
                     } else if (j == sortIndexList.size() - 1) {
                         if (j > repeatCell.getCurrent()) {
-                            cellList.add(new CellRangeAddress(i + rowIndex, i + rowIndex, repeatCell.getCurrent(), j));
+                            cellList.add(new CellRangeAddress(i, i, repeatCell.getCurrent(), j));
                         }
                     }
                 }
@@ -125,54 +213,46 @@ public class CellMergeStrategy extends AbstractMergeStrategy {
     }
 
     @SneakyThrows
-    private static List<CellRangeAddress> handleRaw(List<?> list, boolean hasTitle, Integer headSize) {
+    private static List<CellRangeAddress> handleRaw(List<?> list) {
         List<CellRangeAddress> cellList = new ArrayList<>();
-        if (CollectionUtils.isEmpty(list)) {
-            return cellList;
-        }
         Class<?> clazz = list.get(0).getClass();
         Field[] fields = clazz.getDeclaredFields();
         // 有注解的字段
-        List<Field> mergeFields = new ArrayList<>();
+        List<Method> readMethods = new ArrayList<>();
         List<Integer> mergeFieldsIndex = new ArrayList<>();
         for (int i = 0; i < fields.length; i++) {
             Field field = fields[i];
             if (field.isAnnotationPresent(CellMerge.class)) {
                 CellMerge cm = field.getAnnotation(CellMerge.class);
-                mergeFields.add(field);
+                readMethods.add(getReadMethod(clazz, field));
                 mergeFieldsIndex.add(cm.index() == -1 ? i : cm.index());
             }
         }
-        // 行合并开始下标
-        int rowIndex = hasTitle ? headSize : 0;
-        Map<Field, RepeatCell> map = new HashMap<>();
+        RepeatCell[] repeatCells = new RepeatCell[readMethods.size()];
         // 生成两两合并单元格
         for (int i = 0; i < list.size(); i++) {
-            for (int j = 0; j < mergeFields.size(); j++) {
-                Field field = mergeFields.get(j);
-                String name = field.getName();
-                String methodName = "get" + name.substring(0, 1).toUpperCase() + name.substring(1);
-                Method readMethod = clazz.getMethod(methodName);
-                Object val = readMethod.invoke(list.get(i));
+            for (int j = 0; j < readMethods.size(); j++) {
+                Object val = readMethods.get(j).invoke(list.get(i));
 
                 int colNum = mergeFieldsIndex.get(j);
-                if (!map.containsKey(field)) {
-                    map.put(field, new RepeatCell(val, i));
+                RepeatCell repeatCell = repeatCells[j];
+                if (repeatCell == null) {
+                    repeatCells[j] = new RepeatCell(val, i);
                 } else {
-                    RepeatCell repeatCell = map.get(field);
                     Object cellValue = repeatCell.getValue();
                     if (cellValue == null || "".equals(cellValue)) {
-                        // 空值跳过不合并
+                        // 空值不合并，从当前行重新开始
+                        repeatCells[j] = new RepeatCell(val, i);
                         continue;
                     }
                     if (!cellValue.equals(val)) {
                         if (i - repeatCell.getCurrent() > 1) {
-                            cellList.add(new CellRangeAddress(repeatCell.getCurrent() + rowIndex, i + rowIndex - 1, colNum, colNum));
+                            cellList.add(new CellRangeAddress(repeatCell.getCurrent(), i - 1, colNum, colNum));
                         }
-                        map.put(field, new RepeatCell(val, i));
+                        repeatCells[j] = new RepeatCell(val, i);
                     } else if (i == list.size() - 1) {
                         if (i > repeatCell.getCurrent()) {
-                            cellList.add(new CellRangeAddress(repeatCell.getCurrent() + rowIndex, i + rowIndex, colNum, colNum));
+                            cellList.add(new CellRangeAddress(repeatCell.getCurrent(), i, colNum, colNum));
                         }
                     }
                 }
@@ -181,6 +261,12 @@ public class CellMergeStrategy extends AbstractMergeStrategy {
         return cellList;
     }
 
+    private static Method getReadMethod(Class<?> clazz, Field field) throws NoSuchMethodException {
+        String name = field.getName();
+        String methodName = "get" + name.substring(0, 1).toUpperCase() + name.substring(1);
+        return clazz.getMethod(methodName);
+    }
+
     @Data
     @AllArgsConstructor
     static class RepeatCell {
@@ -0,0 +1,182 @@
+package io.github.cookiegege.strategy;
+
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.excel.metadata.Head;
+import com.alibaba.excel.write.handler.WorkbookWriteHandler;
+import com.alibaba.excel.write.handler.context.WorkbookWriteHandlerContext;
+import com.alibaba.excel.write.merge.AbstractMergeStrategy;
+import io.github.cookiegege.annotation.CellMerge;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 流式列值重复合并策略
+ * 不需要提前拿到全部数据，按列记录当前连续相同值的起止行，值变化时立即输出合并区域，内存只与列数有关
+ * 只处理纵向合并(同一列相邻行)，空值不参与合并；横向合并需要整行数据，请使用 {@link CellMergeStrategy}
+ * <p>
+ * 注册到写出器上({@code EasyExcel.write(...).registerWriteHandler(...)})时，切换sheet和写出结束(afterWorkbookDispose)时自动合并最后一段。
+ * 注册到单个sheet上时，EasyExcel 结束时只回调最后写出的sheet上的处理器，其他sheet写完后需要手动调用 {@link #finish()}
+ *
+ * @author JoSuper
+ */
+public class StreamCellMergeStrategy extends AbstractMergeStrategy implements WorkbookWriteHandler {
+
+    /**
+     * 列号对应的状态下标，-1 表示该列不合并
+     */
+    private final int[] positions;
+
+    /**
+     * 每列当前连续相同的值
+     */
+    private final Object[] values;
+
+    /**
+     * 每列当前连续相同值的起始行
+     */
+    private final int[] firstRows;
+
+    /**
+     * 每列当前连续相同值的结束行
+     */
+    private final int[] lastRows;
+
+    /**
+     * 当前写出的sheet
+     */
+    private Sheet sheet;
+
+    /**
+     * 已输出的合并区域数量
+     */
+    private long mergedCount;
+
+    /**
+     * 根据实体类上的 {@link CellMerge} 注解确定合并列，与 {@link CellMergeStrategy} 一样 mergeCol 的列也做纵向合并
+     *
+     * @param clazz 实体类
+     */
+    public StreamCellMergeStrategy(Class<?> clazz) {
+        this(mergeColumns(clazz));
+    }
+
+    /**
+     * 指定合并列
+     *
+     * @param columnIndexes 合并列的列号
+     */
+    public StreamCellMergeStrategy(Collection<Integer> columnIndexes) {
+        int max = -1;
+        for (Integer columnIndex : columnIndexes) {
+            max = Math.max(max, columnIndex);
+        }
+        this.positions = new int[max + 1];
+        Arrays.fill(positions, -1);
+        int size = 0;
+        for (Integer columnIndex : columnIndexes) {
+            if (columnIndex >= 0 && positions[columnIndex] < 0) {
+                positions[columnIndex] = size++;
+            }
+        }
+        this.values = new Object[size];
+        this.firstRows = new int[size];
+        this.lastRows = new int[size];
+    }
+
+    private static List<Integer> mergeColumns(Class<?> clazz) {
+        List<Integer> columns = new ArrayList<>();
+        Field[] fields = clazz.getDeclaredFields();
+        for (int i = 0; i < fields.length; i++) {
+            CellMerge cm = fields[i].getAnnotation(CellMerge.class);
+            if (cm != null) {
+                columns.add(cm.index() == -1 ? i : cm.index());
+            }
+        }
+        return columns;
+    }
+
+    @Override
+    protected void merge(Sheet sheet, Cell cell, Head head, Integer relativeRowIndex) {
+        int columnIndex = cell.getColumnIndex();
+        if (columnIndex >= positions.length || positions[columnIndex] < 0) {
+            return;
+        }
+        if (this.sheet != sheet) {
+            finish();
+            this.sheet = sheet;
+        }
+        int position = positions[columnIndex];
+        int rowIndex = cell.getRowIndex();
+        Object value = getCellValue(cell);
+        if (value != null && value.equals(values[position]) && rowIndex == lastRows[position] + 1) {
+            lastRows[position] = rowIndex;
+            return;
+        }
+        close(position, columnIndex);
+        values[position] = value;
+        firstRows[position] = rowIndex;
+        lastRows[position] = rowIndex;
+    }
+
+    @Override
+    public void afterWorkbookDispose(WorkbookWriteHandlerContext context) {
+        finish();
+    }
+
+    /**
+     * 合并所有列还未结束的连续相同值，注册到写出器上时写出结束会自动调用，注册到sheet上时在该sheet写完后调用
+     */
+    public void finish() {
+        if (sheet == null) {
+            return;
+        }
+        for (int columnIndex = 0; columnIndex < positions.length; columnIndex++) {
+            int position = positions[columnIndex];
+            if (position >= 0) {
+                close(position, columnIndex);
+                values[position] = null;
+            }
+        }
+        sheet = null;
+    }
+
+    /**
+     * 已输出的合并区域数量
+     */
+    public long getMergedCount() {
+        return mergedCount;
+    }
+
+    private void close(int position, int columnIndex) {
+        if (values[position] != null && lastRows[position] > firstRows[position]) {
+            sheet.addMergedRegionUnsafe(new CellRangeAddress(firstRows[position], lastRows[position], columnIndex, columnIndex));
+            mergedCount++;
+        }
+    }
+
+    /**
+     * 读取单元格的值，空值返回 null
+     */
+    private static Object getCellValue(Cell cell) {
+        switch (cell.getCellType()) {
+            case STRING:
+                String value = cell.getStringCellValue();
+                return StrUtil.isEmpty(value) ? null : value;
+            case NUMERIC:
+                return cell.getNumericCellValue();
+            case BOOLEAN:
+                return cell.getBooleanCellValue();
+            case FORMULA:
+                return cell.getCellFormula();
+            default:
+                return null;
+        }
+    }
+}
@@ -1,29 +1,130 @@
 package io.github.cookiegege.util;
 
 import cn.hutool.extra.spring.SpringUtil;
+import io.github.cookiegege.exception.ExcelException;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
 import jakarta.validation.Validator;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Validator 校验框架工具
+ * Validator 在第一次校验时获取一次，查找顺序：
+ * {@link #setValidatorProvider(ValidatorProvider)} 指定的提供者、SPI 注册的提供者、Spring 容器中的 Validator、
+ * {@link Validation#buildDefaultValidatorFactory()} 创建的独立 Validator
+ * <p>
+ * 没有任何约束的类直接跳过校验
  *
  * @author Lion Li
  */
+@Slf4j
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class CommonValidatorUtils {
 
-    private static final Validator VALID = SpringUtil.getBean(Validator.class);
+    private static volatile ValidatorProvider provider;
+
+    private static volatile Validator validator;
+
+    /**
+     * 类是否有约束
+     */
+    private static final Map<Class<?>, Boolean> CONSTRAINED = new ConcurrentHashMap<>();
 
     public static <T> void validate(T object, Class<?>... groups) {
-        Set<ConstraintViolation<T>> validate = VALID.validate(object, groups);
+        Set<ConstraintViolation<T>> validate = getViolations(object, groups);
         if (!validate.isEmpty()) {
             throw new ConstraintViolationException("参数校验异常", validate);
         }
     }
 
+    /**
+     * 校验并返回所有违规信息，不抛出异常
+     * Validator 是线程安全的，可以在多个线程中同时调用
+     */
+    public static <T> Set<ConstraintViolation<T>> getViolations(T object, Class<?>... groups) {
+        if (object == null || !isConstrained(object.getClass())) {
+            return Collections.emptySet();
+        }
+        return getValidator().validate(object, groups);
+    }
+
+    /**
+     * 类(包括属性和级联属性)是否有约束，结果按类缓存
+     *
+     * @param clazz 类型
+     * @return 没有任何约束时返回 false
+     */
+    public static boolean isConstrained(Class<?> clazz) {
+        Boolean constrained = CONSTRAINED.get(clazz);
+        if (constrained == null) {
+            constrained = getValidator().getConstraintsForClass(clazz).isBeanConstrained();
+            CONSTRAINED.put(clazz, constrained);
+        }
+        return constrained;
+    }
+
+    /**
+     * 指定 Validator 提供者，已经获取的 Validator 和约束缓存会被清除
+     *
+     * @param validatorProvider 提供者，为空时恢复默认查找顺序
+     */
+    public static synchronized void setValidatorProvider(ValidatorProvider validatorProvider) {
+        provider = validatorProvider;
+        validator = null;
+        CONSTRAINED.clear();
+    }
+
+    /**
+     * 获取 Validator，第一次调用时按查找顺序获取
+     *
+     * @return Validator
+     */
+    public static Validator getValidator() {
+        Validator current = validator;
+        if (current == null) {
+            synchronized (CommonValidatorUtils.class) {
+                current = validator;
+                if (current == null) {
+                    current = resolveValidator();
+                    validator = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static Validator resolveValidator() {
+        if (provider != null) {
+            return provider.getValidator();
+        }
+        Iterator<ValidatorProvider> providers = ServiceLoader.load(ValidatorProvider.class).iterator();
+        if (providers.hasNext()) {
+            return providers.next().getValidator();
+        }
+        if (SpringUtil.getApplicationContext() != null) {
+            try {
+                return SpringUtil.getBean(Validator.class);
+            } catch (RuntimeException e) {
+                log.debug("Spring 容器中没有 Validator，使用独立的 Validator: {}", e.getMessage());
+            }
+        }
+        try {
+            return Validation.buildDefaultValidatorFactory().getValidator();
+        } catch (RuntimeException e) {
+            ExcelException exception = new ExcelException("无法创建 Validator，请引入 Bean Validation 实现(如 hibernate-validator)");
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
 }
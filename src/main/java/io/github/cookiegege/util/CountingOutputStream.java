@@ -0,0 +1,38 @@
+package io.github.cookiegege.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 统计写出字节数的输出流，不做缓冲，关闭时关闭被包装的流
+ *
+ * @author JoSuper
+ */
+public class CountingOutputStream extends FilterOutputStream {
+
+    private volatile long count;
+
+    public CountingOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        count += len;
+    }
+
+    /**
+     * 已写出的字节数
+     */
+    public long getCount() {
+        return count;
+    }
+}
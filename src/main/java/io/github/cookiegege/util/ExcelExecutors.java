@@ -0,0 +1,96 @@
+package io.github.cookiegege.util;
+
+import cn.hutool.core.thread.ExecutorBuilder;
+import cn.hutool.core.thread.NamedThreadFactory;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Excel 后台任务线程池工具
+ *
+ * @author JoSuper
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ExcelExecutors {
+
+    /**
+     * 默认队列长度，队列满时由提交线程自己执行
+     */
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    /**
+     * 获取默认的共享线程池，线程数为CPU核数，使用守护线程，不需要手动关闭
+     *
+     * @return 共享线程池
+     */
+    public static ExecutorService defaultExecutor() {
+        return DefaultExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * 创建有界线程池，队列满时由提交线程自己执行，不会丢弃任务
+     *
+     * @param namePrefix    线程名前缀
+     * @param threads       线程数
+     * @param queueCapacity 队列长度
+     * @return 线程池
+     */
+    public static ExecutorService newBoundedExecutor(String namePrefix, int threads, int queueCapacity) {
+        return newBoundedExecutor(namePrefix, threads, queueCapacity, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * 创建有界线程池，队列满时使用指定的拒绝策略
+     *
+     * @param namePrefix    线程名前缀
+     * @param threads       线程数
+     * @param queueCapacity 队列长度
+     * @param handler       拒绝策略
+     * @return 线程池
+     */
+    public static ExecutorService newBoundedExecutor(String namePrefix, int threads, int queueCapacity, RejectedExecutionHandler handler) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("线程数必须大于0");
+        }
+        return ExecutorBuilder.create()
+                .setCorePoolSize(threads)
+                .setMaxPoolSize(threads)
+                .setKeepAliveTime(60, TimeUnit.SECONDS)
+                .setAllowCoreThreadTimeOut(true)
+                .useArrayBlockingQueue(queueCapacity)
+                .setThreadFactory(new NamedThreadFactory(namePrefix, true))
+                .setHandler(handler)
+                .build();
+    }
+
+    /**
+     * 创建每个任务一个虚拟线程的线程池(JDK 21+)，低版本 JDK 退化为CPU核数大小的有界线程池
+     * 调用方负责关闭返回的线程池
+     *
+     * @param namePrefix 退化时使用的线程名前缀
+     * @return 线程池
+     */
+    public static ExecutorService newVirtualThreadExecutor(String namePrefix) {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.debug("当前JDK不支持虚拟线程，使用有界线程池代替");
+            return newBoundedExecutor(namePrefix, Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY);
+        }
+    }
+
+    private static class DefaultExecutorHolder {
+        private static final ExecutorService EXECUTOR = newBoundedExecutor(
+                "easyexcel-util-", Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY);
+    }
+}
@@ -5,7 +5,11 @@ import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.*;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 
 /**
  * 文件处理工具类
@@ -16,38 +20,236 @@ public class FileUtils {
     public static String FILENAME_PATTERN = "[a-zA-Z0-9_\\-\\|\\.\\u4e00-\\u9fa5]+";
 
     /**
-     * 输出指定文件的byte数组
+     * 缓冲区大小，transferTo 不可用时使用
+     */
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    /**
+     * 单次 transferTo 的最大长度，部分平台单次最多传输 2G
+     */
+    private static final long MAX_TRANSFER_SIZE = 8L * 1024 * 1024;
+
+    /**
+     * 输出指定文件的byte数组，输出完成后关闭输出流
      *
      * @param filePath 文件路径
      * @param os       输出流
      * @return
      */
     public static void writeBytes(String filePath, OutputStream os) throws IOException {
-        FileInputStream fis = null;
         try {
             File file = new File(filePath);
             if (!file.exists()) {
                 throw new FileNotFoundException(filePath);
             }
-            fis = new FileInputStream(file);
-            byte[] b = new byte[1024];
-            int length;
-            while ((length = fis.read(b)) > 0) {
-                os.write(b, 0, length);
-            }
-        } catch (IOException e) {
-            throw e;
+            writeBytes(file, 0, file.length(), os);
         } finally {
-            if (null != fis) {
-                fis.close();
-            }
             if (null != os) {
-                os.flush();
                 os.close();
             }
         }
     }
 
+    /**
+     * 输出文件指定区间的内容，不关闭输出流
+     * 输出流为文件流时使用 transferTo 零拷贝，否则使用大缓冲区直接写入
+     *
+     * @param file   文件
+     * @param start  起始位置
+     * @param length 长度
+     * @param os     输出流
+     */
+    public static void writeBytes(File file, long start, long length, OutputStream os) throws IOException {
+        if (os instanceof FileOutputStream) {
+            writeBytes(file, start, length, ((FileOutputStream) os).getChannel());
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // 普通输出流只能写 byte[]，用堆缓冲区避免直接缓冲区到数组的再次拷贝
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, Math.max(length, 1)));
+            long position = start;
+            long end = start + length;
+            while (position < end) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new EOFException(file.getPath());
+                }
+                os.write(buffer.array(), 0, read);
+                position += read;
+            }
+        }
+        os.flush();
+    }
+
+    /**
+     * 输出文件指定区间的内容到通道，不关闭通道
+     * 优先使用 transferTo，由操作系统直接拷贝(如 sendfile)，目标不接受时退化为直接缓冲区写入
+     *
+     * @param file   文件
+     * @param start  起始位置
+     * @param length 长度
+     * @param target 目标通道
+     */
+    public static void writeBytes(File file, long start, long length, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long position = start;
+            long end = start + length;
+            while (position < end) {
+                long transferred = channel.transferTo(position, Math.min(MAX_TRANSFER_SIZE, end - position), target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+            if (position < end) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(BUFFER_SIZE, end - position));
+                while (position < end) {
+                    buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+                    int read = channel.read(buffer, position);
+                    if (read < 0) {
+                        throw new EOFException(file.getPath());
+                    }
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        target.write(buffer);
+                    }
+                    position += read;
+                }
+            }
+        }
+    }
+
+    /**
+     * 下载文件，支持 Range 断点续传(单个区间)
+     * 请求头 If-Range 与文件的 ETag 或最后修改时间不一致时返回完整文件
+     *
+     * @param file        文件
+     * @param fileName    下载文件名
+     * @param contentType 内容类型
+     * @param request     请求对象
+     * @param response    响应对象
+     */
+    public static void downloadFile(File file, String fileName, String contentType, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!file.isFile()) {
+            throw new FileNotFoundException(file.getPath());
+        }
+        long fileLength = file.length();
+        long lastModified = file.lastModified();
+        String etag = "\"" + Long.toHexString(fileLength) + "-" + Long.toHexString(lastModified) + "\"";
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("ETag", etag);
+        response.setDateHeader("Last-Modified", lastModified);
+        setAttachmentResponseHeader(response, fileName);
+        response.setContentType(contentType);
+
+        long[] range = null;
+        String rangeHeader = request.getHeader("Range");
+        if (rangeHeader != null && isRangeCurrent(request, etag, lastModified)) {
+            range = parseRange(rangeHeader, fileLength);
+            if (range == null) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader("Content-Range", "bytes */" + fileLength);
+                return;
+            }
+        }
+        if (range == null || (range[0] == 0 && range[1] == fileLength - 1)) {
+            response.setContentLengthLong(fileLength);
+            writeBytes(file, 0, fileLength, response.getOutputStream());
+            return;
+        }
+        long length = range[1] - range[0] + 1;
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setHeader("Content-Range", "bytes " + range[0] + "-" + range[1] + "/" + fileLength);
+        response.setContentLengthLong(length);
+        writeBytes(file, range[0], length, response.getOutputStream());
+    }
+
+    /**
+     * 解析单个区间的 Range 请求头，如 bytes=0-99、bytes=100-、bytes=-100
+     * 按 RFC 9110，语法无效(如结束位置小于起始位置)的 Range 直接忽略，只有语法正确但超出文件范围时才无法满足
+     *
+     * @param rangeHeader Range 请求头
+     * @param fileLength  文件长度
+     * @return 起止位置(包含)，多个区间或语法无效时返回整个文件，区间无法满足时返回 null
+     */
+    public static long[] parseRange(String rangeHeader, long fileLength) {
+        long[] all = {0, fileLength - 1};
+        if (!rangeHeader.startsWith("bytes=") || rangeHeader.indexOf(',') >= 0) {
+            return all;
+        }
+        String spec = rangeHeader.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return all;
+        }
+        String first = spec.substring(0, dash).trim();
+        String last = spec.substring(dash + 1).trim();
+        if (!(first.isEmpty() ? isDigits(last) : isDigits(first) && (last.isEmpty() || isDigits(last)))) {
+            return all;
+        }
+        try {
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // 最后 N 个字节
+                long suffix = Long.parseLong(last);
+                if (suffix == 0) {
+                    return null;
+                }
+                start = Math.max(0, fileLength - suffix);
+                end = fileLength - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = fileLength - 1;
+                if (!last.isEmpty()) {
+                    long lastPos = Long.parseLong(last);
+                    if (lastPos < start) {
+                        return all;
+                    }
+                    end = Math.min(lastPos, end);
+                }
+            }
+            if (start >= fileLength) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return all;
+        }
+    }
+
+    private static boolean isDigits(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * If-Range 为空或与当前文件一致
+     */
+    private static boolean isRangeCurrent(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return etag.equals(ifRange);
+        }
+        try {
+            // HTTP 日期精确到秒
+            return request.getDateHeader("If-Range") / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
 
     /**
      * 删除文件
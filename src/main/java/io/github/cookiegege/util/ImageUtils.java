@@ -0,0 +1,162 @@
+package io.github.cookiegege.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * 图片处理工具
+ *
+ * @author JoSuper
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ImageUtils {
+
+    public static final String PNG = "png";
+    public static final String JPEG = "jpeg";
+    public static final String GIF = "gif";
+    public static final String BMP = "bmp";
+    public static final String EMF = "emf";
+    public static final String WMF = "wmf";
+
+    /**
+     * 根据文件头识别图片格式
+     *
+     * @param data 图片数据
+     * @return 格式名称，无法识别时返回 null
+     */
+    public static String getFormat(byte[] data) {
+        if (data == null || data.length < 4) {
+            return null;
+        }
+        int b0 = data[0] & 0xFF;
+        int b1 = data[1] & 0xFF;
+        int b2 = data[2] & 0xFF;
+        int b3 = data[3] & 0xFF;
+        if (b0 == 0x89 && b1 == 'P' && b2 == 'N' && b3 == 'G') {
+            return PNG;
+        }
+        if (b0 == 0xFF && b1 == 0xD8 && b2 == 0xFF) {
+            return JPEG;
+        }
+        if (b0 == 'G' && b1 == 'I' && b2 == 'F') {
+            return GIF;
+        }
+        if (b0 == 'B' && b1 == 'M') {
+            return BMP;
+        }
+        if (b0 == 0x01 && b1 == 0 && b2 == 0 && b3 == 0) {
+            return EMF;
+        }
+        if ((b0 == 0xD7 && b1 == 0xCD && b2 == 0xC6 && b3 == 0x9A) || (b0 == 0x01 && b1 == 0 && b2 == 0x09 && b3 == 0)) {
+            return WMF;
+        }
+        return null;
+    }
+
+    /**
+     * 根据文件头获取 Excel 图片类型，无法识别或 Excel 不支持的格式按 png 处理
+     *
+     * @param data 图片数据
+     * @return Workbook.PICTURE_TYPE_*
+     */
+    public static int getPictureType(byte[] data) {
+        String format = getFormat(data);
+        if (format == null) {
+            return Workbook.PICTURE_TYPE_PNG;
+        }
+        switch (format) {
+            case JPEG:
+                return Workbook.PICTURE_TYPE_JPEG;
+            case GIF:
+                return XSSFWorkbook.PICTURE_TYPE_GIF;
+            case EMF:
+                return Workbook.PICTURE_TYPE_EMF;
+            case WMF:
+                return Workbook.PICTURE_TYPE_WMF;
+            default:
+                return Workbook.PICTURE_TYPE_PNG;
+        }
+    }
+
+    /**
+     * 按比例缩小到不超过指定宽高并重新编码，jpeg 仍输出 jpeg，其他格式输出 png
+     * 尺寸已经合适的 png/jpeg 原样返回，无法解码的格式(如 emf/wmf)原样返回
+     *
+     * @param data      图片数据
+     * @param maxWidth  最大宽度(像素)
+     * @param maxHeight 最大高度(像素)
+     * @return 处理后的图片数据
+     * @throws IOException 图片解码或编码失败
+     */
+    public static byte[] resize(byte[] data, int maxWidth, int maxHeight) throws IOException {
+        String format = getFormat(data);
+        if (format == null || EMF.equals(format) || WMF.equals(format)) {
+            return data;
+        }
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(data));
+        if (image == null) {
+            return data;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        boolean fits = width <= maxWidth && height <= maxHeight;
+        if (fits && (PNG.equals(format) || JPEG.equals(format))) {
+            return data;
+        }
+        if (!fits) {
+            double scale = Math.min((double) maxWidth / width, (double) maxHeight / height);
+            image = scale(image, Math.max(1, (int) Math.round(width * scale)), Math.max(1, (int) Math.round(height * scale)));
+        }
+        boolean jpeg = JPEG.equals(format);
+        if (jpeg && image.getColorModel().hasAlpha()) {
+            image = copy(image, image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        }
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, jpeg ? "jpg" : PNG, os)) {
+            return data;
+        }
+        return os.toByteArray();
+    }
+
+    /**
+     * 逐步减半缩小，一次缩小太多会丢失细节
+     */
+    private static BufferedImage scale(BufferedImage image, int targetWidth, int targetHeight) {
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage result = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            result = copy(result, width, height, type);
+        } while (width != targetWidth || height != targetHeight);
+        return result;
+    }
+
+    private static BufferedImage copy(BufferedImage image, int width, int height, int type) {
+        BufferedImage result = new BufferedImage(width, height, type);
+        Graphics2D graphics = result.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if (type == BufferedImage.TYPE_INT_RGB) {
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return result;
+    }
+}
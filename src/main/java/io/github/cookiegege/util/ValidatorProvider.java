@@ -0,0 +1,22 @@
+package io.github.cookiegege.util;
+
+import jakarta.validation.Validator;
+
+/**
+ * Validator 提供者
+ * 可以通过 {@link CommonValidatorUtils#setValidatorProvider(ValidatorProvider)} 指定，
+ * 也可以通过 META-INF/services/io.github.cookiegege.util.ValidatorProvider 注册
+ *
+ * @author JoSuper
+ */
+@FunctionalInterface
+public interface ValidatorProvider {
+
+    /**
+     * 获取 Validator，只会在第一次校验时调用一次
+     *
+     * @return Validator
+     */
+    Validator getValidator();
+
+}
@@ -1,13 +1,106 @@
 package io.github.cookiegege;
 
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.enums.CellDataTypeEnum;
+import com.alibaba.excel.enums.CellExtraTypeEnum;
+import com.alibaba.excel.exception.ExcelAnalysisException;
+import com.alibaba.excel.metadata.CellExtra;
+import com.alibaba.excel.metadata.data.ImageData;
+import com.alibaba.excel.metadata.data.ReadCellData;
+import com.alibaba.excel.metadata.data.WriteCellData;
+import com.alibaba.excel.write.metadata.WriteSheet;
+import io.github.cookiegege.convert.ExcelBigDecimalConvert;
+import io.github.cookiegege.convert.ExcelBigIntegerConvert;
+import io.github.cookiegege.convert.ExcelBigNumberConvert;
+import io.github.cookiegege.convert.ExcelLongArrayConvert;
 import io.github.cookiegege.entity.DemoData;
+import io.github.cookiegege.entity.DictData;
+import io.github.cookiegege.entity.EnumData;
+import io.github.cookiegege.entity.ImageDemoData;
+import io.github.cookiegege.entity.MergeColData;
+import io.github.cookiegege.entity.MergeData;
+import io.github.cookiegege.entity.ValidData;
+import io.github.cookiegege.excel.BatchExcelListener;
+import io.github.cookiegege.excel.BatchExcelResult;
+import io.github.cookiegege.excel.DefaultExcelListener;
+import io.github.cookiegege.excel.DefaultExcelResult;
+import io.github.cookiegege.excel.ExcelColumnAccessor;
+import io.github.cookiegege.excel.ExcelResult;
+import io.github.cookiegege.excel.ExcelTemplateCache;
+import io.github.cookiegege.excel.ExportSheet;
+import io.github.cookiegege.excel.ImagePipeline;
+import io.github.cookiegege.excel.ImageSourceData;
+import io.github.cookiegege.excel.ImageSpillArea;
+import io.github.cookiegege.excel.ImportError;
+import io.github.cookiegege.excel.ImportErrorPolicy;
+import io.github.cookiegege.excel.ImportProgress;
+import io.github.cookiegege.excel.ImportProgressTracker;
+import io.github.cookiegege.exception.ExcelException;
+import io.github.cookiegege.job.ExportJob;
+import io.github.cookiegege.job.ExportJobManager;
+import io.github.cookiegege.job.ExportJobOptions;
+import io.github.cookiegege.job.ExportJobStatus;
+import io.github.cookiegege.metrics.ExcelMetricsRegistry;
+import io.github.cookiegege.metrics.MicrometerExcelMetrics;
+import io.github.cookiegege.strategy.StreamCellMergeStrategy;
+import io.github.cookiegege.util.CommonValidatorUtils;
+import io.github.cookiegege.util.ExcelExecutors;
+import io.github.cookiegege.util.FileUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Validation;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFDrawing;
+import org.apache.poi.xssf.usermodel.XSSFPictureData;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openxmlformats.schemas.drawingml.x2006.spreadsheetDrawing.CTTwoCellAnchor;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * @author JoSuper
@@ -15,6 +108,9 @@ import java.util.List;
  */
 public class EasyExcelUtilTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     public List<DemoData> createDemoDataList() {
         List<DemoData> list = new ArrayList<>();
         for (int i = 0; i < 10; i++) {
@@ -50,4 +146,945 @@ public class EasyExcelUtilTest {
 
     }
 
+    @Test
+    public void testImportBatch() {
+        List<DemoData> list = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            DemoData data = new DemoData();
+            data.setString("字符串" + i);
+            data.setDoubleData((double) i);
+            list.add(data);
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        EasyExcelUtil.exportExcel(list, "测试", DemoData.class, outputStream);
+
+        List<Integer> batchSizes = new ArrayList<>();
+        List<DemoData> imported = new ArrayList<>();
+        ExcelResult<DemoData> result = EasyExcelUtil.importExcel(
+                new ByteArrayInputStream(outputStream.toByteArray()),
+                DemoData.class,
+                false,
+                10,
+                batch -> {
+                    batchSizes.add(batch.size());
+                    imported.addAll(batch);
+                }
+        );
+
+        Assert.assertEquals(Arrays.asList(10, 10, 5), batchSizes);
+        Assert.assertTrue(result.getList().isEmpty());
+        Assert.assertEquals(25, ((BatchExcelResult<DemoData>) result).getSuccessCount());
+        Assert.assertEquals("字符串24", imported.get(24).getString());
+    }
+
+    @Test
+    public void testExplainMergeData() {
+        List<MergeData> list = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            MergeData data = new MergeData();
+            data.setGroup("分组" + i);
+            data.setName("名称" + i);
+            data.setAmount(i);
+            list.add(data);
+        }
+        List<CellExtra> extras = Arrays.asList(
+                // 表头内的合并区域忽略
+                new CellExtra(CellExtraTypeEnum.MERGE, null, 0, 0, 0, 2),
+                new CellExtra(CellExtraTypeEnum.MERGE, null, 1, 3, 0, 0),
+                new CellExtra(CellExtraTypeEnum.MERGE, null, 4, 5, 0, 1),
+                // 超出数据范围的行截断
+                new CellExtra(CellExtraTypeEnum.MERGE, null, 6, 9, 1, 1)
+        );
+
+        EasyExcelUtil.explainMergeData(list, extras, 1);
+
+        Assert.assertEquals("分组0", list.get(2).getGroup());
+        Assert.assertEquals("名称2", list.get(2).getName());
+        Assert.assertEquals("分组3", list.get(4).getGroup());
+        Assert.assertEquals("分组3", list.get(4).getName());
+        Assert.assertEquals(Integer.valueOf(4), list.get(4).getAmount());
+        Assert.assertEquals("名称5", list.get(5).getName());
+
+        // 类型不匹配时保留原始异常
+        try {
+            ExcelColumnAccessor.of(MergeData.class).set(list.get(0), 2, "名称");
+            Assert.fail();
+        } catch (ExcelException e) {
+            Assert.assertTrue(e.getCause() instanceof ClassCastException);
+        }
+    }
+
+    @Test
+    public void testCellMergeRegions() throws IOException {
+        // 横向合并区域与纵向合并区域重叠时忽略横向区域(原实现在 addMergedRegion 时抛出 IllegalStateException)
+        List<MergeColData> colList = new ArrayList<>();
+        for (String[] values : new String[][]{{"x", "x"}, {"y", "y"}, {"y", "z"}}) {
+            MergeColData data = new MergeColData();
+            data.setGroup("分组");
+            data.setStart(values[0]);
+            data.setEnd(values[1]);
+            colList.add(data);
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        EasyExcelUtil.exportExcel(colList, "测试", MergeColData.class, true, outputStream);
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Assert.assertEquals(new HashSet<>(Arrays.asList("A2:A4", "B3:B4", "B2:C2")), mergedRegions(workbook.getSheetAt(0)));
+        }
+
+        // 空值不合并，之后的值重新开始计算(原实现第一行为空值时整列都不再合并)
+        List<MergeData> list = new ArrayList<>();
+        for (String group : Arrays.asList("", "", "a", "a", "b", "b", null, null)) {
+            MergeData data = new MergeData();
+            data.setGroup(group);
+            data.setName("名称" + list.size());
+            list.add(data);
+        }
+        outputStream.reset();
+        EasyExcelUtil.exportExcel(list, "测试", MergeData.class, true, outputStream);
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Assert.assertEquals(new HashSet<>(Arrays.asList("A4:A5", "A6:A7")), mergedRegions(workbook.getSheetAt(0)));
+        }
+
+        // 非空值与原实现一致，最后一段合并到最后一行
+        list.clear();
+        for (String group : Arrays.asList("a", "a", "a", "b", "c", "c")) {
+            MergeData data = new MergeData();
+            data.setGroup(group);
+            data.setName("名称" + list.size());
+            list.add(data);
+        }
+        outputStream.reset();
+        EasyExcelUtil.exportExcel(list, "测试", MergeData.class, true, outputStream);
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Assert.assertEquals(new HashSet<>(Arrays.asList("A2:A4", "A6:A7")), mergedRegions(workbook.getSheetAt(0)));
+        }
+    }
+
+    @Test
+    public void testStreamMerge() throws IOException {
+        StreamCellMergeStrategy strategy = new StreamCellMergeStrategy(MergeData.class);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ExcelWriter excelWriter = EasyExcel.write(outputStream, MergeData.class).build();
+        WriteSheet writeSheet = EasyExcel.writerSheet("测试").registerWriteHandler(strategy).build();
+        // 分三页写出，合并区域跨页
+        for (int page = 0; page < 3; page++) {
+            List<MergeData> list = new ArrayList<>();
+            for (int i = page * 4; i < Math.min(page * 4 + 4, 10); i++) {
+                MergeData data = new MergeData();
+                data.setGroup("分组" + (i / 3));
+                data.setName("名称" + i);
+                list.add(data);
+            }
+            excelWriter.write(list, writeSheet);
+        }
+        strategy.finish();
+        excelWriter.finish();
+
+        List<String> regions = new ArrayList<>();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            for (CellRangeAddress region : workbook.getSheetAt(0).getMergedRegions()) {
+                regions.add(region.formatAsString());
+            }
+        }
+        Assert.assertEquals(Arrays.asList("A2:A4", "A5:A7", "A8:A10"), regions);
+        Assert.assertEquals(3, strategy.getMergedCount());
+    }
+
+    @Test
+    public void testStreamMergeWithoutFinish() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        // 注册到写出器上 切换sheet和写出结束时自动合并最后一段 不调用 finish
+        ExcelWriter excelWriter = EasyExcel.write(outputStream, MergeData.class)
+                .registerWriteHandler(new StreamCellMergeStrategy(MergeData.class))
+                .build();
+        for (int s = 0; s < 2; s++) {
+            excelWriter.write(createStreamMergeData(), EasyExcel.writerSheet(s, "测试" + s).build());
+        }
+        excelWriter.finish();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Assert.assertEquals(new HashSet<>(Arrays.asList("A2:A4", "A5:A6")), mergedRegions(workbook.getSheetAt(0)));
+            Assert.assertEquals(new HashSet<>(Arrays.asList("A2:A4", "A5:A6")), mergedRegions(workbook.getSheetAt(1)));
+        }
+
+        // 注册到sheet上时 不是最后一个sheet的需要手动 finish
+        outputStream.reset();
+        excelWriter = EasyExcel.write(outputStream, MergeData.class).build();
+        StreamCellMergeStrategy first = new StreamCellMergeStrategy(MergeData.class);
+        excelWriter.write(createStreamMergeData(), EasyExcel.writerSheet(0, "测试0").registerWriteHandler(first).build());
+        first.finish();
+        excelWriter.write(createStreamMergeData(), EasyExcel.writerSheet(1, "测试1")
+                .registerWriteHandler(new StreamCellMergeStrategy(MergeData.class)).build());
+        excelWriter.finish();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Assert.assertEquals(new HashSet<>(Arrays.asList("A2:A4", "A5:A6")), mergedRegions(workbook.getSheetAt(0)));
+            Assert.assertEquals(new HashSet<>(Arrays.asList("A2:A4", "A5:A6")), mergedRegions(workbook.getSheetAt(1)));
+        }
+    }
+
+    private static List<MergeData> createStreamMergeData() {
+        List<MergeData> list = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            MergeData data = new MergeData();
+            data.setGroup("分组" + (i / 3));
+            data.setName("名称" + i);
+            list.add(data);
+        }
+        return list;
+    }
+
+    @Test
+    public void testExportPages() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        EasyExcelUtil.exportExcel(pageNo -> {
+            List<MergeData> list = new ArrayList<>();
+            for (int i = (pageNo - 1) * 4; i < Math.min(pageNo * 4, 10); i++) {
+                MergeData data = new MergeData();
+                data.setGroup("分组" + (i / 3));
+                data.setName("名称" + i);
+                data.setAmount(i);
+                list.add(data);
+            }
+            return list;
+        }, "测试", MergeData.class, true, outputStream);
+
+        List<MergeData> imported = EasyExcelUtil.importExcel(new ByteArrayInputStream(outputStream.toByteArray()), MergeData.class);
+        Assert.assertEquals(10, imported.size());
+        Assert.assertEquals(Integer.valueOf(9), imported.get(9).getAmount());
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Assert.assertEquals(3, workbook.getSheetAt(0).getNumMergedRegions());
+        }
+    }
+
+    @Test
+    public void testExportRollover() throws IOException {
+        List<MergeData> list = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            MergeData data = new MergeData();
+            data.setGroup("分组" + (i / 3));
+            data.setName("名称" + i);
+            data.setAmount(i);
+            list.add(data);
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        EasyExcelUtil.exportExcel(list.iterator(), 3, "测试", MergeData.class, true, 4, outputStream);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Assert.assertEquals(3, workbook.getNumberOfSheets());
+            Assert.assertEquals("测试_2", workbook.getSheetName(1));
+            Assert.assertEquals("测试_3", workbook.getSheetName(2));
+            Assert.assertEquals(4, workbook.getSheetAt(1).getLastRowNum());
+            Assert.assertEquals("名称4", workbook.getSheetAt(1).getRow(1).getCell(1).getStringCellValue());
+            // 合并区域不跨sheet
+            Assert.assertEquals("A2:A4", workbook.getSheetAt(0).getMergedRegion(0).formatAsString());
+            Assert.assertEquals("A2:A3", workbook.getSheetAt(1).getMergedRegion(0).formatAsString());
+        }
+    }
+
+
+    @Test
+    public void testExportListRolloverMergeCol() throws IOException {
+        List<MergeColData> list = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            MergeColData data = new MergeColData();
+            data.setGroup("分组");
+            data.setStart("值" + i);
+            data.setEnd("值" + i);
+            list.add(data);
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        EasyExcelUtil.exportExcel(list, "测试", MergeColData.class, true, 4, outputStream);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Assert.assertEquals(2, workbook.getNumberOfSheets());
+            // 每个sheet按自己的数据合并 横向合并不丢失
+            Assert.assertEquals(new HashSet<>(Arrays.asList("A2:A5", "B2:C2", "B3:C3", "B4:C4", "B5:C5")), mergedRegions(workbook.getSheetAt(0)));
+            Assert.assertEquals(new HashSet<>(Arrays.asList("A2:A3", "B2:C2", "B3:C3")), mergedRegions(workbook.getSheetAt(1)));
+        }
+    }
+
+    @Test
+    public void testExportSheetsParallel() throws IOException {
+        List<ExportSheet<MergeData>> sheets = new ArrayList<>();
+        for (int s = 0; s < 3; s++) {
+            List<MergeData> list = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                MergeData data = new MergeData();
+                data.setGroup("分组" + (i / (s + 2)));
+                data.setName("名称" + i);
+                data.setAmount(i);
+                list.add(data);
+            }
+            sheets.add(new ExportSheet<>("测试" + s, list, MergeData.class));
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        EasyExcelUtil.exportExcel(sheets, true, ExcelExecutors.defaultExecutor(), outputStream);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Assert.assertEquals(3, workbook.getNumberOfSheets());
+            Assert.assertEquals("测试2", workbook.getSheetName(2));
+            Assert.assertEquals(3, workbook.getSheetAt(0).getNumMergedRegions());
+            Assert.assertEquals(2, workbook.getSheetAt(1).getNumMergedRegions());
+            Assert.assertEquals("A2:A5", workbook.getSheetAt(2).getMergedRegion(0).formatAsString());
+        }
+    }
+
+    @Test
+    public void testExportImages() throws IOException {
+        ByteArrayOutputStream image = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB), "png", image);
+        List<ImageDemoData> list = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            List<ImageData> images = new ArrayList<>();
+            for (int j = 0; j < 2; j++) {
+                ImageData imageData = new ImageData();
+                imageData.setImage(image.toByteArray());
+                images.add(imageData);
+            }
+            WriteCellData<Void> cellData = new WriteCellData<>();
+            cellData.setImageDataList(images);
+            ImageDemoData data = new ImageDemoData();
+            data.setName("名称" + i);
+            data.setImages(cellData);
+            list.add(data);
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        EasyExcelUtil.exportExcel(list, "测试", ImageDemoData.class, outputStream);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            XSSFDrawing drawing = workbook.getSheetAt(0).getDrawingPatriarch();
+            CTTwoCellAnchor[] anchors = drawing.getCTDrawing().getTwoCellAnchorArray();
+            // 每个单元格两张图片，EasyExcel不再额外写入没有格式的图片
+            Assert.assertEquals(6, anchors.length);
+            for (CTTwoCellAnchor anchor : anchors) {
+                Assert.assertTrue(anchor.getTo().getRow() > anchor.getFrom().getRow());
+            }
+            // 内容相同的图片只保存一份
+            Assert.assertEquals(1, workbook.getAllPictures().size());
+            Assert.assertEquals(900, workbook.getSheetAt(0).getRow(1).getHeight());
+        }
+
+        // 拆分的sheet和多个sheet导出都共用一份图片登记表
+        outputStream.reset();
+        EasyExcelUtil.exportExcel(list, "测试", ImageDemoData.class, false, 2, outputStream);
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Assert.assertEquals(2, workbook.getNumberOfSheets());
+            Assert.assertEquals(2, workbook.getSheetAt(1).getDrawingPatriarch().getCTDrawing().sizeOfTwoCellAnchorArray());
+            Assert.assertEquals(1, workbook.getAllPictures().size());
+        }
+        outputStream.reset();
+        List<ExportSheet<ImageDemoData>> sheets = new ArrayList<>();
+        sheets.add(new ExportSheet<>("测试1", list, ImageDemoData.class));
+        sheets.add(new ExportSheet<>("测试2", list, ImageDemoData.class));
+        EasyExcelUtil.exportExcel(sheets, false, null, outputStream);
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Assert.assertEquals(2, workbook.getNumberOfSheets());
+            Assert.assertEquals(1, workbook.getAllPictures().size());
+        }
+    }
+
+    @Test
+    public void testExportImagePipeline() throws IOException {
+        ByteArrayOutputStream image = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB), "jpg", image);
+        File file = File.createTempFile("image", ".jpg");
+        file.deleteOnExit();
+        try (FileOutputStream fos = new FileOutputStream(file)) {
+            fos.write(image.toByteArray());
+        }
+        List<ImageDemoData> list = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ImageDemoData data = new ImageDemoData();
+            data.setName("名称" + i);
+            data.setImages(ImageSourceData.cellData(Collections.singletonList(file)));
+            list.add(data);
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        EasyExcelUtil.exportExcel(list, "测试", ImageDemoData.class, false, ImagePipeline.create(), outputStream);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            List<XSSFPictureData> pictures = workbook.getAllPictures();
+            Assert.assertEquals(1, pictures.size());
+            Assert.assertEquals(Workbook.PICTURE_TYPE_JPEG, pictures.get(0).getPictureType());
+            BufferedImage resized = ImageIO.read(new ByteArrayInputStream(pictures.get(0).getData()));
+            Assert.assertEquals(60, resized.getWidth());
+            Assert.assertEquals(45, resized.getHeight());
+        }
+    }
+
+    @Test
+    public void testExportLazyImages() throws IOException {
+        ByteArrayOutputStream image = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB), "png", image);
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<byte[]> source = () -> {
+            loads.incrementAndGet();
+            return image.toByteArray();
+        };
+        List<ImageDemoData> list = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ImageDemoData data = new ImageDemoData();
+            data.setName("名称" + i);
+            data.setImages(ImageSourceData.cellData(Collections.singletonList(source)));
+            list.add(data);
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageSpillArea spillArea = new ImageSpillArea();
+        try {
+            ImagePipeline pipeline = ImagePipeline.builder().lazy(true).spillArea(spillArea).build();
+            EasyExcelUtil.exportExcel(list, "测试", ImageDemoData.class, false, pipeline, outputStream);
+            // 同一个来源只加载一次，行数据中不保留图片
+            Assert.assertEquals(1, loads.get());
+            Assert.assertEquals(1, spillArea.size());
+            Assert.assertNull(list.get(0).getImages().getImageDataList().get(0).getImage());
+        } finally {
+            spillArea.close();
+        }
+        Assert.assertFalse(spillArea.getDirectory().toFile().exists());
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Assert.assertEquals(1, workbook.getAllPictures().size());
+            Assert.assertEquals(5, workbook.getSheetAt(0).getDrawingPatriarch().getCTDrawing().sizeOfTwoCellAnchorArray());
+        }
+    }
+
+    @Test
+    public void testDictConvert() {
+        Assert.assertEquals("女", EasyExcelUtil.convertByExp("1", "0=男,1=女,2=未知", ","));
+        Assert.assertEquals("男,未知", EasyExcelUtil.convertByExp("2,0,9", "0=男,1=女,2=未知", ","));
+        Assert.assertEquals("0,1", EasyExcelUtil.reverseByExp("女,男", "0=男,1=女,2=未知", ","));
+        Assert.assertEquals("", EasyExcelUtil.reverseByExp("其他", "0=男,1=女,2=未知", ","));
+
+        List<DictData> list = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            DictData data = new DictData();
+            data.setName("名称" + i);
+            data.setSex(i);
+            data.setPermissions("c|a");
+            list.add(data);
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        EasyExcelUtil.exportExcel(list, "测试", DictData.class, outputStream);
+
+        List<DictData> result = EasyExcelUtil.importExcel(new ByteArrayInputStream(outputStream.toByteArray()), DictData.class, false).getList();
+        Assert.assertEquals(3, result.size());
+        Assert.assertEquals(Integer.valueOf(2), result.get(2).getSex());
+        // 多值按字典顺序输出，分隔符不按正则处理
+        Assert.assertEquals("a|c", result.get(0).getPermissions());
+    }
+
+    @Test
+    public void testEnumConvert() throws IOException {
+        List<EnumData> list = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            EnumData data = new EnumData();
+            data.setName("名称" + i);
+            data.setStatus(i % 2);
+            list.add(data);
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        EasyExcelUtil.exportExcel(list, "测试", EnumData.class, outputStream);
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Assert.assertEquals("停用", workbook.getSheetAt(0).getRow(1).getCell(1).getStringCellValue());
+            Assert.assertEquals("启用", workbook.getSheetAt(0).getRow(2).getCell(1).getStringCellValue());
+        }
+
+        // 导入时按文本反查编码 编码类型与字段类型一致
+        List<EnumData> result = EasyExcelUtil.importExcel(new ByteArrayInputStream(outputStream.toByteArray()), EnumData.class, false).getList();
+        Assert.assertEquals(3, result.size());
+        Assert.assertEquals(Integer.valueOf(0), result.get(0).getStatus());
+        Assert.assertEquals(Integer.valueOf(1), result.get(1).getStatus());
+        Assert.assertEquals(Integer.valueOf(0), result.get(2).getStatus());
+    }
+
+    @Test
+    public void testBigNumberConvert() {
+        ExcelBigNumberConvert convert = new ExcelBigNumberConvert();
+        // 与按字符串长度判断一致：长度不超过15位输出数值
+        Assert.assertEquals(CellDataTypeEnum.NUMBER, convert.convertToExcelData(999_999_999_999_999L, null, null).getType());
+        Assert.assertEquals(CellDataTypeEnum.STRING, convert.convertToExcelData(1_000_000_000_000_000L, null, null).getType());
+        Assert.assertEquals(CellDataTypeEnum.NUMBER, convert.convertToExcelData(-99_999_999_999_999L, null, null).getType());
+        Assert.assertEquals(CellDataTypeEnum.STRING, convert.convertToExcelData(-100_000_000_000_000L, null, null).getType());
+        Assert.assertEquals(CellDataTypeEnum.STRING, convert.convertToExcelData(Long.MIN_VALUE, null, null).getType());
+        Assert.assertEquals(CellDataTypeEnum.EMPTY, convert.convertToExcelData(null, null, null).getType());
+        Assert.assertEquals(Long.valueOf(1234567890123456789L), convert.convertToJavaData(new ReadCellData<>(" 1234567890123456789 "), null, null));
+        Assert.assertEquals(Long.valueOf(12), convert.convertToJavaData(new ReadCellData<>(new BigDecimal("12")), null, null));
+        Assert.assertNull(convert.convertToJavaData(new ReadCellData<>(""), null, null));
+
+        ExcelBigIntegerConvert bigIntegerConvert = new ExcelBigIntegerConvert();
+        BigInteger bigInteger = new BigInteger("123456789012345678901234567890");
+        Assert.assertEquals(bigInteger.toString(), bigIntegerConvert.convertToExcelData(bigInteger, null, null).getStringValue());
+        Assert.assertEquals(CellDataTypeEnum.NUMBER, bigIntegerConvert.convertToExcelData(BigInteger.TEN, null, null).getType());
+        Assert.assertEquals(bigInteger, bigIntegerConvert.convertToJavaData(new ReadCellData<>(bigInteger.toString()), null, null));
+
+        ExcelBigDecimalConvert bigDecimalConvert = new ExcelBigDecimalConvert();
+        BigDecimal bigDecimal = new BigDecimal("0.1234567890123456789");
+        Assert.assertEquals(bigDecimal.toPlainString(), bigDecimalConvert.convertToExcelData(bigDecimal, null, null).getStringValue());
+        Assert.assertEquals(CellDataTypeEnum.NUMBER, bigDecimalConvert.convertToExcelData(new BigDecimal("12.50"), null, null).getType());
+        Assert.assertEquals(bigDecimal, bigDecimalConvert.convertToJavaData(new ReadCellData<>(bigDecimal.toPlainString()), null, null));
+
+        ExcelLongArrayConvert arrayConvert = new ExcelLongArrayConvert();
+        long[] values = {1L, 1234567890123456789L, -3L};
+        String text = arrayConvert.convertToExcelData(values, null, null).getStringValue();
+        Assert.assertEquals("1,1234567890123456789,-3", text);
+        Assert.assertArrayEquals(values, arrayConvert.convertToJavaData(new ReadCellData<>(text), null, null));
+        Assert.assertEquals(CellDataTypeEnum.NUMBER, arrayConvert.convertToExcelData(new long[]{7L}, null, null).getType());
+    }
+
+    /**
+     * 1000行数据，行 7/107/.../907 名称为空，行 3/253/503/753 年龄小于0
+     */
+    private static byte[] createValidDataFile() {
+        List<ValidData> list = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ValidData data = new ValidData();
+            data.setName(i % 100 == 7 ? "" : "名称" + i);
+            data.setAge(i % 250 == 3 ? -1 : i % 150);
+            list.add(data);
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        EasyExcelUtil.exportExcel(list, "测试", ValidData.class, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    @Test
+    public void testParallelValidate() {
+        byte[] file = createValidDataFile();
+
+        ExcelResult<ValidData> result = EasyExcelUtil.importExcelParallel(new ByteArrayInputStream(file), ValidData.class);
+        // 数据行号从第2行开始
+        Assert.assertEquals(14, result.getErrorList().size());
+        Assert.assertEquals("第5行-第2列-表头年龄: 年龄不能小于0", result.getErrorList().get(0));
+        Assert.assertEquals("第9行-第1列-表头名称: 名称不能为空", result.getErrorList().get(1));
+        Assert.assertEquals(986, result.getList().size());
+        Assert.assertEquals("名称0", result.getList().get(0).getName());
+        Assert.assertEquals("名称999", result.getList().get(985).getName());
+
+        // 分批导入时数据仍按行号顺序交给消费者
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<ValidData> imported = new ArrayList<>();
+            BatchExcelListener<ValidData> listener = new BatchExcelListener<>(executor, 64, imported::addAll);
+            ExcelResult<ValidData> batchResult = EasyExcelUtil.importExcel(new ByteArrayInputStream(file), ValidData.class, listener);
+            Assert.assertEquals(result.getErrorList(), batchResult.getErrorList());
+            Assert.assertEquals(986, imported.size());
+            for (int i = 1; i < imported.size(); i++) {
+                int prev = Integer.parseInt(imported.get(i - 1).getName().substring(2));
+                Assert.assertTrue(prev < Integer.parseInt(imported.get(i).getName().substring(2)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // 线程池出错不是数据错误 直接中断解析
+        try {
+            EasyExcelUtil.importExcel(new ByteArrayInputStream(file), ValidData.class, command -> {
+                throw new RejectedExecutionException("busy");
+            });
+            Assert.fail();
+        } catch (ExcelAnalysisException e) {
+            Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+        try {
+            EasyExcelUtil.importExcel(new ByteArrayInputStream(file), ValidData.class, (Executor) null);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("校验线程池不能为空", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testImportErrorPolicy() {
+        byte[] file = createValidDataFile();
+        // 默认遇到错误立即中断
+        try {
+            EasyExcelUtil.importExcel(new ByteArrayInputStream(file), ValidData.class, true);
+            Assert.fail();
+        } catch (ExcelAnalysisException e) {
+            Assert.assertEquals("第5行-第2列-表头年龄: 年龄不能小于0", e.getMessage());
+        }
+
+        // 第3条错误在行107，之前的数据正常返回
+        ExcelResult<ValidData> collect = EasyExcelUtil.importExcel(new ByteArrayInputStream(file), ValidData.class, true, ImportErrorPolicy.collect(3));
+        Assert.assertEquals(3, collect.getErrorCount());
+        Assert.assertEquals(105, collect.getList().size());
+        ImportError error = collect.getErrors().get(2);
+        Assert.assertEquals(Integer.valueOf(108), error.getRowIndex());
+        Assert.assertEquals(Integer.valueOf(0), error.getColumnIndex());
+        Assert.assertEquals("名称", error.getHead());
+        ExcelResult<ValidData> parallel = EasyExcelUtil.importExcelParallel(new ByteArrayInputStream(file), ValidData.class, ImportErrorPolicy.collect(3));
+        Assert.assertEquals(collect.getErrorList(), parallel.getErrorList());
+        Assert.assertEquals(105, parallel.getList().size());
+
+        // 抽样：解析全部数据，只保留5条错误
+        ExcelResult<ValidData> sample = EasyExcelUtil.importExcel(new ByteArrayInputStream(file), ValidData.class, true, ImportErrorPolicy.sample(5));
+        Assert.assertEquals(14, sample.getErrorCount());
+        Assert.assertEquals(5, sample.getErrors().size());
+        Assert.assertEquals(986, sample.getList().size());
+        Assert.assertTrue(sample.getAnalysis().startsWith("读取完成，成功986条，错误14条(列出5条)"));
+    }
+
+    @Test
+    public void testErrorListView() {
+        DefaultExcelResult<ValidData> result = new DefaultExcelResult<>(ImportErrorPolicy.collectAll());
+        result.getErrorList().add("自定义错误1");
+        result.addError(new ImportError(3, 1, "年龄", "年龄不能小于0", null));
+        // 记录导入错误之后新增的信息不会丢失
+        result.getErrorList().add("自定义错误2");
+        Assert.assertEquals(Arrays.asList("自定义错误1", "自定义错误2", "第4行-第2列-表头年龄: 年龄不能小于0"), result.getErrorList());
+        Assert.assertEquals(3, result.getErrorCount());
+        try {
+            result.getErrorList().remove(2);
+            Assert.fail();
+        } catch (UnsupportedOperationException e) {
+            Assert.assertEquals(3, result.getErrorList().size());
+        }
+    }
+
+    @Test
+    public void testImportProgress() {
+        byte[] file = createValidDataFile();
+        List<ImportProgress> events = new ArrayList<>();
+        ExcelResult<ValidData> result = EasyExcelUtil.importExcel(new ByteArrayInputStream(file), ValidData.class, true,
+                ImportErrorPolicy.collectAll(), events::add);
+        Assert.assertEquals(986, result.getList().size());
+        ImportProgress last = events.get(events.size() - 1);
+        Assert.assertTrue(last.isFinished());
+        Assert.assertEquals(100, last.getPercent());
+        Assert.assertEquals(1000, last.getRowsParsed());
+        Assert.assertEquals(1000, last.getRowsValidated());
+        Assert.assertEquals(14, last.getErrorCount());
+        Assert.assertEquals(file.length, last.getBytesRead());
+
+        // 间隔为0时每64行回调一次
+        List<ImportProgress> frequent = new ArrayList<>();
+        ImportProgressTracker tracker = new ImportProgressTracker(frequent::add, Duration.ZERO);
+        DefaultExcelListener<ValidData> listener = new DefaultExcelListener<>(ExcelExecutors.defaultExecutor(), 100, ImportErrorPolicy.collectAll());
+        listener.setProgressTracker(tracker);
+        EasyExcel.read(tracker.track(new ByteArrayInputStream(file)), ValidData.class, listener).sheet().doRead();
+        tracker.finish();
+        tracker.finish();
+        Assert.assertEquals(1000 / 64 + 1, frequent.size());
+        Assert.assertEquals(64, frequent.get(0).getRowsParsed());
+        Assert.assertEquals(1000, frequent.get(0).getApproximateRows());
+        Assert.assertEquals(6, frequent.get(0).getPercent());
+        Assert.assertFalse(frequent.get(0).isFinished());
+        Assert.assertEquals(1000, frequent.get(frequent.size() - 1).getRowsValidated());
+        Assert.assertEquals(14, frequent.get(frequent.size() - 1).getErrorCount());
+
+        // 没有回调时轮询也能拿到大约行数
+        List<ImportProgress> none = new ArrayList<>();
+        ImportProgressTracker polled = new ImportProgressTracker(none::add, Duration.ofHours(1));
+        DefaultExcelListener<ValidData> pollListener = new DefaultExcelListener<>(true, ImportErrorPolicy.collectAll());
+        pollListener.setProgressTracker(polled);
+        EasyExcel.read(polled.track(new ByteArrayInputStream(file)), ValidData.class, pollListener).sheet().doRead();
+        Assert.assertTrue(none.isEmpty());
+        Assert.assertEquals(1000, polled.getProgress().getApproximateRows());
+        Assert.assertEquals(1000, polled.getProgress().getRowsParsed());
+        Assert.assertEquals(14, polled.getProgress().getErrorCount());
+    }
+
+    @Test
+    public void testValidatorProvider() {
+        AtomicInteger calls = new AtomicInteger();
+        CommonValidatorUtils.setValidatorProvider(() -> {
+            calls.incrementAndGet();
+            return Validation.buildDefaultValidatorFactory().getValidator();
+        });
+        try {
+            Assert.assertTrue(CommonValidatorUtils.isConstrained(ValidData.class));
+            Assert.assertFalse(CommonValidatorUtils.isConstrained(DemoData.class));
+            ValidData data = new ValidData();
+            data.setAge(200);
+            Assert.assertEquals(2, CommonValidatorUtils.getViolations(data).size());
+            Assert.assertTrue(CommonValidatorUtils.getViolations(new DemoData()).isEmpty());
+            // 只获取一次
+            Assert.assertEquals(1, calls.get());
+        } finally {
+            CommonValidatorUtils.setValidatorProvider(null);
+        }
+    }
+
+    @Test
+    public void testExportJob() throws Exception {
+        Path directory = Files.createTempDirectory("export-job");
+        List<DemoData> list = createDemoDataList();
+        try (ExportJobManager manager = new ExportJobManager(ExportJobOptions.builder().directory(directory).build())) {
+            ExportJob job = manager.submit("测试", ctx -> {
+                ctx.setTotalRows(list.size());
+                EasyExcelUtil.exportExcel(list, "测试", DemoData.class, ctx.getOutputStream(), ctx.getHandlers());
+            });
+            long deadline = System.currentTimeMillis() + 10000;
+            while (!job.getStatus().isFinished() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            Assert.assertEquals(ExportJobStatus.COMPLETED, job.getStatus());
+            Assert.assertEquals(10, job.getRowsWritten());
+            Assert.assertEquals(1, job.getSheetsDone());
+            Assert.assertEquals(100, job.getProgress());
+            byte[] file = Files.readAllBytes(job.getFile());
+            Assert.assertEquals(file.length, job.getFileSize());
+            Assert.assertFalse(Files.exists(directory.resolve(job.getId() + ".part")));
+
+            // 完整下载
+            Map<String, Object> headers = new HashMap<>();
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            manager.download(job.getId(), mockRequest(Collections.emptyMap()), mockResponse(headers, body));
+            Assert.assertArrayEquals(file, body.toByteArray());
+            Assert.assertNull(headers.get("status"));
+            Assert.assertEquals((long) file.length, headers.get("Content-Length"));
+
+            // 断点续传
+            headers.clear();
+            body.reset();
+            manager.download(job.getId(), mockRequest(Collections.singletonMap("Range", "bytes=100-")), mockResponse(headers, body));
+            Assert.assertEquals(206, headers.get("status"));
+            Assert.assertEquals("bytes 100-" + (file.length - 1) + "/" + file.length, headers.get("Content-Range"));
+            Assert.assertArrayEquals(Arrays.copyOfRange(file, 100, file.length), body.toByteArray());
+
+            // ETag 不一致时返回完整文件
+            headers.clear();
+            body.reset();
+            Map<String, String> stale = new HashMap<>();
+            stale.put("Range", "bytes=0-9");
+            stale.put("If-Range", "\"stale\"");
+            manager.download(job.getId(), mockRequest(stale), mockResponse(headers, body));
+            Assert.assertNull(headers.get("status"));
+            Assert.assertEquals(file.length, body.size());
+
+            Assert.assertNull(FileUtils.parseRange("bytes=" + file.length + "-", file.length));
+            Assert.assertArrayEquals(new long[]{file.length - 10, file.length - 1}, FileUtils.parseRange("bytes=-10", file.length));
+            Assert.assertNull(FileUtils.parseRange("bytes=-0", file.length));
+            // 语法无效的区间忽略 返回完整文件
+            long[] all = {0, file.length - 1};
+            Assert.assertArrayEquals(all, FileUtils.parseRange("bytes=9-0", file.length));
+            Assert.assertArrayEquals(all, FileUtils.parseRange("bytes=--5", file.length));
+            Assert.assertArrayEquals(all, FileUtils.parseRange("bytes=+1-5", file.length));
+
+            manager.remove(job.getId());
+            Assert.assertNull(manager.getJob(job.getId()));
+            Assert.assertFalse(Files.exists(job.getFile()));
+        }
+    }
+
+    @Test
+    public void testWriteBytes() throws IOException {
+        byte[] content = new byte[1024 * 1024 + 7];
+        new Random(1).nextBytes(content);
+        Path source = Files.createTempFile("write-bytes", ".bin");
+        Path target = Files.createTempFile("write-bytes", ".bin");
+        try {
+            Files.write(source, content);
+            AtomicInteger closed = new AtomicInteger();
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            OutputStream os = new FilterOutputStream(buffer) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() {
+                    closed.incrementAndGet();
+                }
+            };
+            FileUtils.writeBytes(source.toFile(), 3, content.length - 10, os);
+            Assert.assertArrayEquals(Arrays.copyOfRange(content, 3, content.length - 7), buffer.toByteArray());
+            Assert.assertEquals(0, closed.get());
+
+            // 文件流走 transferTo，写完后仍可继续写入
+            try (FileOutputStream fos = new FileOutputStream(target.toFile())) {
+                FileUtils.writeBytes(source.toFile(), 0, content.length, fos);
+                fos.write(1);
+            }
+            byte[] copied = Files.readAllBytes(target);
+            Assert.assertEquals(content.length + 1, copied.length);
+            Assert.assertArrayEquals(content, Arrays.copyOf(copied, content.length));
+
+            // 非文件通道
+            buffer.reset();
+            FileUtils.writeBytes(source.toFile(), 100, 1000, Channels.newChannel(buffer));
+            Assert.assertArrayEquals(Arrays.copyOfRange(content, 100, 1100), buffer.toByteArray());
+        } finally {
+            Files.deleteIfExists(source);
+            Files.deleteIfExists(target);
+        }
+    }
+
+    @Test
+    public void testMetrics() throws IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ExcelMetricsRegistry.setMetrics(new MicrometerExcelMetrics(registry));
+        try {
+            List<MergeData> list = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                MergeData data = new MergeData();
+                data.setGroup("分组" + (i / 3));
+                data.setName("名称" + i);
+                data.setAmount(i);
+                list.add(data);
+            }
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            EasyExcelUtil.exportExcel(list, "测试", MergeData.class, true, outputStream);
+            EasyExcelUtil.importExcel(new ByteArrayInputStream(outputStream.toByteArray()), MergeData.class, false);
+
+            Assert.assertEquals(1, registry.get("easyexcel.operation").tags("operation", "export", "outcome", "success").timer().count());
+            Assert.assertEquals(10, registry.get("easyexcel.rows").tag("operation", "export").counter().count(), 0);
+            Assert.assertEquals(outputStream.size(), registry.get("easyexcel.bytes").tag("operation", "export").summary().totalAmount(), 0);
+            Assert.assertEquals(3, registry.get("easyexcel.merged.regions").summary().totalAmount(), 0);
+            Assert.assertEquals(10, registry.get("easyexcel.buffered.rows").tag("operation", "export").summary().max(), 0);
+            for (String stage : Arrays.asList("write", "flush", "convert", "merge_plan")) {
+                Assert.assertEquals(stage, 1, registry.get("easyexcel.stage").tags("operation", "export", "stage", stage).timer().count());
+            }
+            Assert.assertEquals(10, registry.get("easyexcel.rows").tag("operation", "import").counter().count(), 0);
+            Assert.assertEquals(1, registry.get("easyexcel.stage").tags("operation", "import", "stage", "read").timer().count());
+
+            // 流式合并在写出结束时合并的最后一段也会被统计
+            outputStream.reset();
+            EasyExcelUtil.exportExcel(pageNo -> pageNo == 1 ? list : null, "测试", MergeData.class, true, outputStream);
+            Assert.assertEquals(6, registry.get("easyexcel.merged.regions").summary().totalAmount(), 0);
+
+            // 失败也会记录
+            DefaultExcelListener<MergeData> failing = new DefaultExcelListener<MergeData>(false) {
+                @Override
+                protected void collect(MergeData data, AnalysisContext context) {
+                    throw new ExcelException("中断");
+                }
+            };
+            try {
+                EasyExcelUtil.importExcel(new ByteArrayInputStream(outputStream.toByteArray()), MergeData.class, failing);
+                Assert.fail();
+            } catch (RuntimeException e) {
+                Assert.assertEquals(1, registry.get("easyexcel.operation").tags("operation", "import", "outcome", "failure").timer().count());
+            }
+        } finally {
+            ExcelMetricsRegistry.setMetrics(null);
+        }
+    }
+
+    @Test
+    public void testExportTemplate() throws Exception {
+        File dir = temporaryFolder.newFolder("excel-template");
+        writeTemplate(new File(dir, "list.xlsx"), "{.name}", "{.amount}");
+        File multiFile = new File(dir, "multi.xlsx");
+        writeTemplate(multiFile, "{list.name}", "{list.amount}");
+        // 模板只从临时目录加载
+        URLClassLoader loader = new URLClassLoader(new URL[]{temporaryFolder.getRoot().toURI().toURL()}, null);
+        ExcelTemplateCache.setDefault(new ExcelTemplateCache(64, 32L * 1024 * 1024, null, loader));
+        List<Object> list = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            MergeData data = new MergeData();
+            data.setName("名称" + i);
+            data.setAmount(i);
+            list.add(data);
+        }
+        try {
+            // 整个列表一次填充
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            EasyExcelUtil.exportTemplate(list, "excel-template/list.xlsx", outputStream);
+            try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+                Assert.assertEquals("名称", workbook.getSheetAt(0).getRow(1).getCell(0).getStringCellValue());
+                Assert.assertEquals("名称4", workbook.getSheetAt(0).getRow(6).getCell(0).getStringCellValue());
+                Assert.assertEquals(4, workbook.getSheetAt(0).getRow(6).getCell(1).getNumericCellValue(), 0);
+            }
+            Map<String, Object> title = new HashMap<>();
+            title.put("title", "报表");
+            Map<String, Object> data = new HashMap<>();
+            data.put("title", title);
+            data.put("list", list);
+            outputStream.reset();
+            EasyExcelUtil.exportTemplateMultiList(data, "excel-template/multi.xlsx", outputStream);
+            try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+                Assert.assertEquals("报表", workbook.getSheetAt(0).getRow(0).getCell(0).getStringCellValue());
+                Assert.assertEquals("名称4", workbook.getSheetAt(0).getRow(6).getCell(0).getStringCellValue());
+            }
+            byte[] cached = ExcelTemplateCache.getDefault().get("excel-template/list.xlsx");
+            Assert.assertSame(cached, ExcelTemplateCache.getDefault().get("excel-template/list.xlsx"));
+
+            // 淘汰
+            ExcelTemplateCache cache = new ExcelTemplateCache(1, 1024 * 1024, Duration.ZERO, loader);
+            cache.get("excel-template/list.xlsx");
+            byte[] multi = cache.get("excel-template/multi.xlsx");
+            Assert.assertEquals(1, cache.size());
+            Assert.assertEquals(multi.length, cache.getTotalBytes());
+
+            // 热加载
+            writeTemplate(multiFile, "{list.name}", "{list.group}");
+            Assert.assertTrue(multiFile.setLastModified(multiFile.lastModified() + 2000));
+            Assert.assertNotSame(multi, cache.get("excel-template/multi.xlsx"));
+            Assert.assertSame(cached, ExcelTemplateCache.getDefault().get("excel-template/list.xlsx"));
+
+            try {
+                cache.get("excel-template/none.xlsx");
+                Assert.fail();
+            } catch (ExcelException e) {
+                Assert.assertTrue(e.getMessage().contains("none.xlsx"));
+            }
+        } finally {
+            ExcelTemplateCache.setDefault(null);
+            loader.close();
+        }
+    }
+
+    private static void writeTemplate(File file, String... placeholders) throws IOException {
+        file.getParentFile().mkdirs();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream os = new FileOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            sheet.createRow(0).createCell(0).setCellValue("{title}");
+            sheet.createRow(1).createCell(0).setCellValue("名称");
+            Row row = sheet.createRow(2);
+            for (int i = 0; i < placeholders.length; i++) {
+                row.createCell(i).setCellValue(placeholders[i]);
+            }
+            workbook.write(os);
+        }
+    }
+
+    private static Set<String> mergedRegions(Sheet sheet) {
+        Set<String> regions = new HashSet<>();
+        for (CellRangeAddress region : sheet.getMergedRegions()) {
+            regions.add(region.formatAsString());
+        }
+        return regions;
+    }
+
+    private static HttpServletRequest mockRequest(Map<String, String> headers) {
+        return (HttpServletRequest) Proxy.newProxyInstance(HttpServletRequest.class.getClassLoader(), new Class<?>[]{HttpServletRequest.class},
+                (proxy, method, args) -> "getHeader".equals(method.getName()) ? headers.get((String) args[0]) : null);
+    }
+
+    private static HttpServletResponse mockResponse(Map<String, Object> headers, ByteArrayOutputStream body) {
+        ServletOutputStream os = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        };
+        return (HttpServletResponse) Proxy.newProxyInstance(HttpServletResponse.class.getClassLoader(), new Class<?>[]{HttpServletResponse.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getOutputStream":
+                            return os;
+                        case "setStatus":
+                            headers.put("status", args[0]);
+                            return null;
+                        case "setContentLengthLong":
+                            headers.put("Content-Length", args[0]);
+                            return null;
+                        case "setHeader":
+                            headers.put((String) args[0], args[1]);
+                            return null;
+                        default:
+                            return null;
+                    }
+                });
+    }
 }
@@ -0,0 +1,23 @@
+package io.github.cookiegege.entity;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import io.github.cookiegege.annotation.ExcelDictFormat;
+import io.github.cookiegege.convert.ExcelDictConvert;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * @author JoSuper
+ */
+@Getter
+@Setter
+public class DictData {
+    @ExcelProperty("名称")
+    private String name;
+    @ExcelDictFormat(readConverterExp = "0=男,1=女,2=未知")
+    @ExcelProperty(value = "性别", converter = ExcelDictConvert.class)
+    private Integer sex;
+    @ExcelDictFormat(readConverterExp = "a=读,b=写,c=执行", separator = "|")
+    @ExcelProperty(value = "权限", converter = ExcelDictConvert.class)
+    private String permissions;
+}
@@ -0,0 +1,20 @@
+package io.github.cookiegege.entity;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import io.github.cookiegege.annotation.ExcelEnumFormat;
+import io.github.cookiegege.convert.ExcelEnumConvert;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * @author JoSuper
+ */
+@Getter
+@Setter
+public class EnumData {
+    @ExcelProperty("名称")
+    private String name;
+    @ExcelEnumFormat(enumClass = StatusEnum.class)
+    @ExcelProperty(value = "状态", converter = ExcelEnumConvert.class)
+    private Integer status;
+}
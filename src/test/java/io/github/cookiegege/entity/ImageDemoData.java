@@ -0,0 +1,18 @@
+package io.github.cookiegege.entity;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import com.alibaba.excel.metadata.data.WriteCellData;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * @author JoSuper
+ */
+@Getter
+@Setter
+public class ImageDemoData {
+    @ExcelProperty("名称")
+    private String name;
+    @ExcelProperty("图片")
+    private WriteCellData<Void> images;
+}
@@ -0,0 +1,25 @@
+package io.github.cookiegege.entity;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import io.github.cookiegege.annotation.CellMerge;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 横向合并
+ *
+ * @author JoSuper
+ */
+@Getter
+@Setter
+public class MergeColData {
+    @CellMerge(index = 0)
+    @ExcelProperty(value = "分组", index = 0)
+    private String group;
+    @CellMerge(index = 1, mergeCol = true)
+    @ExcelProperty(value = "开始", index = 1)
+    private String start;
+    @CellMerge(index = 2, mergeCol = true)
+    @ExcelProperty(value = "结束", index = 2)
+    private String end;
+}
@@ -0,0 +1,23 @@
+package io.github.cookiegege.entity;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import io.github.cookiegege.annotation.CellMerge;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * @author JoSuper
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+public class MergeData {
+    @CellMerge(index = 0)
+    @ExcelProperty(value = "分组", index = 0)
+    private String group;
+    @ExcelProperty(value = "名称", index = 1)
+    private String name;
+    @ExcelProperty(value = "数量", index = 2)
+    private Integer amount;
+}
@@ -0,0 +1,17 @@
+package io.github.cookiegege.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * @author JoSuper
+ */
+@Getter
+@AllArgsConstructor
+public enum StatusEnum {
+    ENABLE(1, "启用"),
+    DISABLE(0, "停用");
+
+    private final Integer code;
+    private final String text;
+}
@@ -0,0 +1,23 @@
+package io.github.cookiegege.entity;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * @author JoSuper
+ */
+@Getter
+@Setter
+public class ValidData {
+    @NotBlank(message = "名称不能为空")
+    @ExcelProperty("名称")
+    private String name;
+    @Min(value = 0, message = "年龄不能小于0")
+    @Max(value = 150, message = "年龄不能大于150")
+    @ExcelProperty("年龄")
+    private Integer age;
+}